@@ -1,13 +1,18 @@
 package com.example.learningplatform.controller;
 
 import com.example.learningplatform.dto.AssignmentDTO;
+import com.example.learningplatform.dto.BulkGradeRequest;
+import com.example.learningplatform.dto.BulkGradeResponseDTO;
 import com.example.learningplatform.dto.SubmissionDTO;
 import com.example.learningplatform.entity.Assignment;
 import com.example.learningplatform.service.AssignmentService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -43,6 +48,22 @@ public class AssignmentController {
         return ResponseEntity.ok(submission);
     }
 
+    @PutMapping("/{assignmentId}/submissions/grades")
+    public ResponseEntity<BulkGradeResponseDTO> gradeSubmissions(
+            @PathVariable Long assignmentId,
+            @Valid @RequestBody BulkGradeRequest request) {
+        BulkGradeResponseDTO response = assignmentService.gradeSubmissions(assignmentId, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/submissions/{submissionId}/content")
+    public ResponseEntity<String> getSubmissionContent(@PathVariable Long submissionId) {
+        String content = assignmentService.getSubmissionContent(submissionId);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(content);
+    }
+
     @GetMapping("/{assignmentId}/submissions")
     public ResponseEntity<List<SubmissionDTO>> getSubmissionsByAssignment(@PathVariable Long assignmentId) {
         List<SubmissionDTO> submissions = assignmentService.getSubmissionsByAssignment(assignmentId);
@@ -1,8 +1,14 @@
 package com.example.learningplatform.controller;
 
+import com.example.learningplatform.dto.CourseCounterReconciliationDTO;
 import com.example.learningplatform.dto.CourseDTO;
+import com.example.learningplatform.dto.CourseSuggestionDTO;
+import com.example.learningplatform.dto.CourseSummaryDTO;
 import com.example.learningplatform.dto.CreateCourseRequest;
+import com.example.learningplatform.dto.CursorPageDTO;
 import com.example.learningplatform.service.CourseService;
+import com.example.learningplatform.service.QuizService;
+import com.example.learningplatform.service.course.CourseCounterReconciler;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +22,8 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final QuizService quizService;
+    private final CourseCounterReconciler courseCounterReconciler;
 
     @PostMapping
     public ResponseEntity<CourseDTO> createCourse(@Valid @RequestBody CreateCourseRequest request) {
@@ -24,14 +32,18 @@ public class CourseController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CourseDTO>> getAllCourses() {
-        List<CourseDTO> courses = courseService.getAllCourses();
+    public ResponseEntity<CursorPageDTO<CourseSummaryDTO>> getAllCourses(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<CourseSummaryDTO> courses = courseService.getAllCourses(cursor, size);
         return ResponseEntity.ok(courses);
     }
 
     @GetMapping("/published")
-    public ResponseEntity<List<CourseDTO>> getPublishedCourses() {
-        List<CourseDTO> courses = courseService.getPublishedCourses();
+    public ResponseEntity<CursorPageDTO<CourseSummaryDTO>> getPublishedCourses(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<CourseSummaryDTO> courses = courseService.getPublishedCourses(cursor, size);
         return ResponseEntity.ok(courses);
     }
 
@@ -48,23 +60,40 @@ public class CourseController {
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<CourseDTO>> getCoursesByCategory(@PathVariable Long categoryId) {
-        List<CourseDTO> courses = courseService.getCoursesByCategory(categoryId);
+    public ResponseEntity<CursorPageDTO<CourseSummaryDTO>> getCoursesByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<CourseSummaryDTO> courses = courseService.getCoursesByCategory(categoryId, cursor, size);
         return ResponseEntity.ok(courses);
     }
 
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<CourseDTO>> getCoursesByTeacher(@PathVariable Long teacherId) {
-        List<CourseDTO> courses = courseService.getCoursesByTeacher(teacherId);
+    public ResponseEntity<CursorPageDTO<CourseSummaryDTO>> getCoursesByTeacher(
+            @PathVariable Long teacherId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<CourseSummaryDTO> courses = courseService.getCoursesByTeacher(teacherId, cursor, size);
         return ResponseEntity.ok(courses);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<CourseDTO>> searchCourses(@RequestParam String query) {
-        List<CourseDTO> courses = courseService.searchCourses(query);
+    public ResponseEntity<CursorPageDTO<CourseSummaryDTO>> searchCourses(
+            @RequestParam String query,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageDTO<CourseSummaryDTO> courses = courseService.searchCourses(query, cursor, size);
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CourseSuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        List<CourseSuggestionDTO> suggestions = courseService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<CourseDTO> updateCourse(@PathVariable Long id, @Valid @RequestBody CreateCourseRequest request) {
         CourseDTO updatedCourse = courseService.updateCourse(id, request);
@@ -88,4 +117,17 @@ public class CourseController {
         courseService.deleteCourse(id);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    @DeleteMapping("/{id}/quizzes")
+    public ResponseEntity<Void> deleteCourseQuizzes(@PathVariable Long id) {
+        quizService.deleteQuizzesByCourse(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/counters/reconcile")
+    public ResponseEntity<CourseCounterReconciliationDTO> reconcileCounters() {
+        CourseCounterReconciliationDTO result = new CourseCounterReconciliationDTO();
+        result.setRepairedCourses(courseCounterReconciler.reconcile());
+        return ResponseEntity.ok(result);
+    }
+}
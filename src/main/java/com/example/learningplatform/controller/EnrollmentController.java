@@ -1,11 +1,20 @@
 package com.example.learningplatform.controller;
 
+import com.example.learningplatform.dto.BulkEnrollmentRequest;
+import com.example.learningplatform.dto.BulkEnrollmentResponseDTO;
 import com.example.learningplatform.dto.EnrollmentDTO;
+import com.example.learningplatform.dto.WaitlistEntryDTO;
 import com.example.learningplatform.entity.enums.EnrollmentStatus;
 import com.example.learningplatform.service.EnrollmentService;
+import com.example.learningplatform.service.enrollment.RosterExporter;
+import com.example.learningplatform.service.enrollment.RosterFormat;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,6 +24,7 @@ import java.util.List;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final RosterExporter rosterExporter;
 
     @PostMapping
     public ResponseEntity<EnrollmentDTO> enrollStudent(
@@ -24,6 +34,12 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollment);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkEnrollmentResponseDTO> bulkEnroll(@Valid @RequestBody BulkEnrollmentRequest request) {
+        BulkEnrollmentResponseDTO response = enrollmentService.bulkEnroll(request);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping
     public ResponseEntity<Void> unenrollStudent(
             @RequestParam Long studentId,
@@ -32,6 +48,28 @@ public class EnrollmentController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(
+            @RequestParam Long studentId,
+            @RequestParam Long courseId) {
+        WaitlistEntryDTO entry = enrollmentService.joinWaitlist(studentId, courseId);
+        return ResponseEntity.ok(entry);
+    }
+
+    @DeleteMapping("/waitlist")
+    public ResponseEntity<Void> leaveWaitlist(
+            @RequestParam Long studentId,
+            @RequestParam Long courseId) {
+        enrollmentService.leaveWaitlist(studentId, courseId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/waitlist/course/{courseId}")
+    public ResponseEntity<List<WaitlistEntryDTO>> getWaitlist(@PathVariable Long courseId) {
+        List<WaitlistEntryDTO> waitlist = enrollmentService.getWaitlist(courseId);
+        return ResponseEntity.ok(waitlist);
+    }
+
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<EnrollmentDTO>> getEnrollmentsByStudent(@PathVariable Long studentId) {
         List<EnrollmentDTO> enrollments = enrollmentService.getEnrollmentsByStudent(studentId);
@@ -44,6 +82,20 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollments);
     }
 
+    @GetMapping("/course/{courseId}/export")
+    public ResponseEntity<StreamingResponseBody> exportRoster(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "csv") String format) {
+        RosterFormat rosterFormat = RosterFormat.fromParam(format);
+        rosterExporter.requireCourse(courseId);
+        StreamingResponseBody body = out -> rosterExporter.export(courseId, rosterFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(rosterFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"course-" + courseId + "-roster." + rosterFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{enrollmentId}/status")
     public ResponseEntity<EnrollmentDTO> updateEnrollmentStatus(
             @PathVariable Long enrollmentId,
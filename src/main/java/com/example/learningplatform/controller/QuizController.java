@@ -3,8 +3,14 @@ package com.example.learningplatform.controller;
 
 import com.example.learningplatform.dto.*;
 import com.example.learningplatform.service.QuizService;
+import com.example.learningplatform.service.quiz.QuizPayloadCache;
+import com.example.learningplatform.service.quiz.QuizView;
+import com.example.learningplatform.service.quiz.RenderedQuiz;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +23,7 @@ import java.util.Map;
 public class QuizController {
 
     private final QuizService quizService;
+    private final QuizPayloadCache quizPayloadCache;
 
     @PostMapping
     public ResponseEntity<QuizDTO> createQuiz(@Valid @RequestBody CreateQuizRequest request) {
@@ -24,6 +31,12 @@ public class QuizController {
         return ResponseEntity.ok(createdQuiz);
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<List<QuizDTO>> importQuizzes(@Valid @RequestBody ImportQuizzesRequest request) {
+        List<QuizDTO> importedQuizzes = quizService.importQuizzes(request.getQuizzes());
+        return ResponseEntity.ok(importedQuizzes);
+    }
+
     @GetMapping("/course/{courseId}")
     public ResponseEntity<List<QuizDTO>> getQuizzesByCourse(@PathVariable Long courseId) {
         List<QuizDTO> quizzes = quizService.getQuizzesByCourse(courseId);
@@ -37,17 +50,59 @@ public class QuizController {
     }
 
     @GetMapping("/{quizId}")
-    public ResponseEntity<QuizDetailDTO> getQuizWithQuestions(@PathVariable Long quizId) {
-        QuizDetailDTO quiz = quizService.getQuizWithQuestions(quizId);
-        return ResponseEntity.ok(quiz);
+    public ResponseEntity<byte[]> getQuizWithQuestions(
+            @PathVariable Long quizId,
+            @RequestParam(defaultValue = "STUDENT") QuizView view,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RenderedQuiz quiz = quizPayloadCache.get(quizId, view);
+        if (quiz.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(quiz.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(quiz.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(quiz.body());
+    }
+
+    @GetMapping("/{quizId}/variant")
+    public ResponseEntity<QuizDetailDTO> getQuizVariant(@PathVariable Long quizId, @RequestParam Long studentId) {
+        QuizDetailDTO variant = quizPayloadCache.getVariant(quizId, studentId);
+        return ResponseEntity.ok(variant);
+    }
+
+    @GetMapping("/{quizId}/analytics")
+    public ResponseEntity<QuizAnalyticsDTO> getQuizAnalytics(@PathVariable Long quizId) {
+        QuizAnalyticsDTO analytics = quizService.getQuizAnalytics(quizId);
+        return ResponseEntity.ok(analytics);
+    }
+
+    @GetMapping("/{quizId}/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+            @PathVariable Long quizId,
+            @RequestParam(defaultValue = "10") int top) {
+        List<LeaderboardEntryDTO> leaderboard = quizService.getLeaderboard(quizId, top);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    @GetMapping("/{quizId}/rank")
+    public ResponseEntity<StudentRankDTO> getStudentRank(@PathVariable Long quizId, @RequestParam Long studentId) {
+        StudentRankDTO rank = quizService.getStudentRank(quizId, studentId);
+        return ResponseEntity.ok(rank);
+    }
+
+    @PostMapping("/{quizId}/attempts")
+    public ResponseEntity<QuizAttemptDTO> startAttempt(@PathVariable Long quizId, @RequestParam Long studentId) {
+        QuizAttemptDTO attempt = quizService.startAttempt(quizId, studentId);
+        return ResponseEntity.ok(attempt);
     }
 
     @PostMapping("/{quizId}/submit/single")
     public ResponseEntity<QuizSubmissionDTO> submitQuizSingleChoice(
             @PathVariable Long quizId,
             @RequestParam Long studentId,
+            @RequestParam(required = false) Long attemptId,
             @RequestBody Map<Long, Long> answers) {
-        QuizSubmissionDTO submission = quizService.submitQuiz(quizId, studentId, answers);
+        QuizSubmissionDTO submission = quizService.submitQuiz(quizId, studentId, attemptId, answers);
         return ResponseEntity.ok(submission);
     }
 
@@ -55,8 +110,19 @@ public class QuizController {
     public ResponseEntity<QuizSubmissionDTO> submitQuizMultipleChoice(
             @PathVariable Long quizId,
             @RequestParam Long studentId,
+            @RequestParam(required = false) Long attemptId,
             @RequestBody Map<Long, List<Long>> answers) {
-        QuizSubmissionDTO submission = quizService.submitQuizWithDetails(quizId, studentId, answers);
+        QuizSubmissionDTO submission = quizService.submitQuizWithDetails(quizId, studentId, attemptId, answers);
+        return ResponseEntity.ok(submission);
+    }
+
+    @PostMapping("/{quizId}/submit/variant")
+    public ResponseEntity<QuizSubmissionDTO> submitQuizVariant(
+            @PathVariable Long quizId,
+            @RequestParam Long studentId,
+            @RequestParam(required = false) Long attemptId,
+            @RequestBody Map<Integer, List<Integer>> answers) {
+        QuizSubmissionDTO submission = quizService.submitQuizVariant(quizId, studentId, attemptId, answers);
         return ResponseEntity.ok(submission);
     }
 
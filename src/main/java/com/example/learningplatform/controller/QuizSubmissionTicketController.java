@@ -0,0 +1,39 @@
+package com.example.learningplatform.controller;
+
+import com.example.learningplatform.dto.SubmissionTicketDTO;
+import com.example.learningplatform.service.QuizService;
+import com.example.learningplatform.service.quiz.QuizSubmissionPipeline;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/quizzes")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.quiz.async-submission.enabled", havingValue = "true")
+public class QuizSubmissionTicketController {
+
+    private final QuizService quizService;
+    private final QuizSubmissionPipeline quizSubmissionPipeline;
+
+    @PostMapping("/{quizId}/submit/async")
+    public ResponseEntity<SubmissionTicketDTO> submitQuizAsync(
+            @PathVariable Long quizId,
+            @RequestParam Long studentId,
+            @RequestParam(required = false) Long attemptId,
+            @RequestBody Map<Long, List<Long>> answers) {
+        SubmissionTicketDTO ticket = quizService.submitQuizAsync(quizId, studentId, attemptId, answers);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ticket);
+    }
+
+    @GetMapping("/submissions/tickets/{ticketId}")
+    public ResponseEntity<SubmissionTicketDTO> getTicket(@PathVariable String ticketId) {
+        SubmissionTicketDTO ticket = quizSubmissionPipeline.getTicket(ticketId);
+        return ResponseEntity.ok(ticket);
+    }
+}
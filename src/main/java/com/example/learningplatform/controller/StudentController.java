@@ -0,0 +1,40 @@
+package com.example.learningplatform.controller;
+
+import com.example.learningplatform.dto.DashboardRebuildDTO;
+import com.example.learningplatform.service.dashboard.StudentDashboardProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/students")
+@RequiredArgsConstructor
+public class StudentController {
+
+    private final StudentDashboardProjector studentDashboardProjector;
+
+    // JSON уже собран в read-модели - отдаётся как есть
+    @GetMapping("/{studentId}/dashboard")
+    public ResponseEntity<String> getDashboard(@PathVariable Long studentId) {
+        String dashboard = studentDashboardProjector.getDashboard(studentId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dashboard);
+    }
+
+    @PostMapping("/{studentId}/dashboard/rebuild")
+    public ResponseEntity<String> rebuildDashboard(@PathVariable Long studentId) {
+        String dashboard = studentDashboardProjector.rebuild(studentId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dashboard);
+    }
+
+    @PostMapping("/dashboards/rebuild")
+    public ResponseEntity<DashboardRebuildDTO> rebuildAllDashboards() {
+        DashboardRebuildDTO result = new DashboardRebuildDTO();
+        result.setRebuiltDashboards(studentDashboardProjector.rebuildAll());
+        return ResponseEntity.ok(result);
+    }
+}
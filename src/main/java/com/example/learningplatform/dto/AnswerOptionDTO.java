@@ -1,10 +1,14 @@
 package com.example.learningplatform.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
 public class AnswerOptionDTO {
     private Long id;
     private String text;
+
+    // В студенческом представлении теста не заполняется и не попадает в JSON
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private Boolean isCorrect;
 }
\ No newline at end of file
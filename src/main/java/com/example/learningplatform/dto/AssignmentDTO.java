@@ -27,4 +27,7 @@ public class AssignmentDTO {
     private Long lessonId;
 
     private String lessonTitle;
+
+    // null - приём решений открыт
+    private LocalDateTime closedAt;
 }
\ No newline at end of file
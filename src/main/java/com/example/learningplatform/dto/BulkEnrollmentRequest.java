@@ -0,0 +1,23 @@
+package com.example.learningplatform.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Либо courseId со списком studentIds (запись группы на курс), либо studentId со списком courseIds.
+ */
+@Data
+public class BulkEnrollmentRequest {
+
+    private Long courseId;
+
+    @Size(max = 5000, message = "Bulk enrollment must not exceed 5000 students")
+    private List<Long> studentIds;
+
+    private Long studentId;
+
+    @Size(max = 5000, message = "Bulk enrollment must not exceed 5000 courses")
+    private List<Long> courseIds;
+}
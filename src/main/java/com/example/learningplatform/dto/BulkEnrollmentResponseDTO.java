@@ -0,0 +1,14 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkEnrollmentResponseDTO {
+    private int enrolled;
+    private int skipped;
+    // В порядке запроса, по строке на каждый элемент списка
+    private List<BulkEnrollmentResultDTO> results = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkEnrollmentResultDTO {
+    private Long studentId;
+    private Long courseId;
+    private Outcome outcome;
+    private Long enrollmentId;
+
+    public enum Outcome {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        DUPLICATE_IN_REQUEST,
+        COURSE_FULL
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.learningplatform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkGradeRequest {
+
+    @NotEmpty(message = "Grades list must not be empty")
+    @Size(max = 5000, message = "Bulk grading must not exceed 5000 submissions")
+    private List<@Valid GradeEntry> grades;
+
+    @Data
+    public static class GradeEntry {
+        private Long submissionId;
+        private Integer score;
+        private String feedback;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkGradeResponseDTO {
+    private Long assignmentId;
+    private Integer maxScore;
+    private int graded;
+    private int skipped;
+    // В порядке запроса, по строке на каждую оценку
+    private List<BulkGradeResultDTO> results = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class BulkGradeResultDTO {
+    private Long submissionId;
+    private Integer score;
+    private Outcome outcome;
+
+    public enum Outcome {
+        GRADED,
+        SUBMISSION_NOT_FOUND,
+        SCORE_OUT_OF_RANGE,
+        DUPLICATE_IN_REQUEST
+    }
+}
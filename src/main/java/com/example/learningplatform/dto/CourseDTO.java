@@ -43,6 +43,17 @@ public class CourseDTO {
 
     private String teacherName;
 
+    private Integer capacity;
+
+    private int enrolledCount;
+
+    private int activeCount;
+
+    private int ratingCount;
+
+    // null, пока у курса нет отзывов
+    private Double averageRating;
+
     private List<ModuleDTO> modules = new ArrayList<>();
 
     private List<@NotBlank(message = "Tag cannot be blank") String> tags = new ArrayList<>();
@@ -0,0 +1,14 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class CourseSuggestionDTO {
+    private String text;
+
+    // COURSE или TAG
+    private String type;
+
+    // Заполняется только для подсказок-курсов
+    private Long courseId;
+}
@@ -0,0 +1,23 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CourseSummaryDTO {
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private Boolean isPublished;
+    private Long categoryId;
+    private String categoryName;
+    private Long teacherId;
+    private String teacherName;
+    private int enrolledCount;
+    private int ratingCount;
+    private Double averageRating;
+    private List<String> tags = new ArrayList<>();
+}
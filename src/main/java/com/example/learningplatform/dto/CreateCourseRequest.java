@@ -30,6 +30,10 @@ public class CreateCourseRequest {
     @Digits(integer = 6, fraction = 2, message = "Price must have max 6 integer and 2 fraction digits")
     private BigDecimal price;
 
+    // null - без ограничения мест
+    @Min(value = 1, message = "Capacity must be at least 1")
+    private Integer capacity;
+
     @NotNull(message = "Category ID is required")
     private Long categoryId;
 
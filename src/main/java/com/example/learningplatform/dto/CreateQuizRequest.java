@@ -1,5 +1,6 @@
 package com.example.learningplatform.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -28,6 +29,9 @@ public class CreateQuizRequest {
 
     private Integer passingScore = 60;
 
+    @Min(value = 1, message = "Questions per attempt must be at least 1")
+    private Integer questionsPerAttempt;
+
     @NotNull(message = "Questions are required")
     @Size(min = 1, message = "Quiz must have at least one question")
     private List<CreateQuestionRequest> questions;
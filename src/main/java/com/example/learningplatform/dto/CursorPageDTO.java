@@ -0,0 +1,16 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CursorPageDTO<T> {
+    private List<T> items = new ArrayList<>();
+
+    // id последнего элемента страницы; передаётся как cursor для следующего запроса
+    private Long nextCursor;
+
+    private boolean hasNext;
+}
@@ -0,0 +1,8 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class DashboardRebuildDTO {
+    private int rebuiltDashboards;
+}
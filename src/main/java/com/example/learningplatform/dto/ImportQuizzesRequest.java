@@ -0,0 +1,16 @@
+package com.example.learningplatform.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ImportQuizzesRequest {
+
+    @NotNull(message = "Quizzes are required")
+    @Size(min = 1, max = 500, message = "Import must contain between 1 and 500 quizzes")
+    private List<@Valid CreateQuizRequest> quizzes;
+}
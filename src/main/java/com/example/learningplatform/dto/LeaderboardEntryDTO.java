@@ -0,0 +1,15 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class LeaderboardEntryDTO {
+    // Спортивный ранг: одинаковый балл - одинаковое место, следующее место пропускается
+    private int rank;
+    private Long studentId;
+    private String studentName;
+    private Integer score;
+    private LocalDateTime takenAt;
+}
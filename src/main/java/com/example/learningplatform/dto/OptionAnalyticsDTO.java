@@ -0,0 +1,11 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class OptionAnalyticsDTO {
+    private Long optionId;
+    private Boolean isCorrect;
+    private long selectedCount;
+    private Double selectedRate;
+}
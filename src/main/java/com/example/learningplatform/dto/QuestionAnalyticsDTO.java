@@ -0,0 +1,23 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class QuestionAnalyticsDTO {
+    private Long questionId;
+    private Integer points;
+    // Сколько студентов получили вопрос: в тесте с банком вопросов - меньше числа сдач
+    private long exposedCount;
+    private long correctCount;
+
+    // Индекс трудности: доля верных ответов среди получивших вопрос, 0..1
+    private Double percentCorrect;
+
+    // Точечно-бисериальная корреляция верности ответа с общим баллом; null, если не определена
+    private Double discrimination;
+
+    private List<OptionAnalyticsDTO> options = new ArrayList<>();
+}
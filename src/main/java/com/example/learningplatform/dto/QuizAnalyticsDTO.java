@@ -0,0 +1,16 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class QuizAnalyticsDTO {
+    private Long quizId;
+    private String quizTitle;
+    private long submissionCount;
+    private Double averageScore;
+    private Double scoreStandardDeviation;
+    private List<QuestionAnalyticsDTO> questions = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package com.example.learningplatform.dto;
+
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class QuizAttemptDTO {
+    private Long id;
+    private Long quizId;
+    private Long studentId;
+    private QuizAttemptStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime expiresAt;
+}
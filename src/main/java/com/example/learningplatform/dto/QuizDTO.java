@@ -18,6 +18,8 @@ public class QuizDTO {
     @Max(value = 480, message = "Time limit must not exceed 480 minutes")
     private long timeLimit;
 
+    private Integer questionsPerAttempt;
+
     private Long moduleId;
     private String moduleTitle;
     private Long courseId;
@@ -17,5 +17,6 @@ public class QuizDetailDTO {
     private String moduleTitle;
     private Integer maxScore;
     private Integer passingScore;
+    private Integer questionsPerAttempt;
     private List<QuestionDetailDTO> questions = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StudentDashboardDTO {
+    private Long studentId;
+    private String studentName;
+    private List<EnrollmentDTO> enrollments = new ArrayList<>();
+    private List<QuizSubmissionDTO> quizSubmissions = new ArrayList<>();
+    // Без текста решений - он есть в GET /api/assignments/student/{studentId}/submissions
+    private List<SubmissionDTO> assignmentSubmissions = new ArrayList<>();
+    private List<CourseReviewDTO> reviews = new ArrayList<>();
+    private LocalDateTime builtAt;
+}
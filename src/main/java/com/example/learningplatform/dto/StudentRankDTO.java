@@ -0,0 +1,13 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+@Data
+public class StudentRankDTO {
+    private Long quizId;
+    private Long studentId;
+    private String studentName;
+    private Integer score;
+    private int rank;
+    private int participants;
+}
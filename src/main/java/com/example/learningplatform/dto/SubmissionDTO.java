@@ -9,9 +9,8 @@ import java.time.LocalDateTime;
 public class SubmissionDTO {
     private Long id;
 
-    @NotBlank(message = "Content is required")
-    @Size(min = 10, max = 5000, message = "Content must be between 10 and 5000 characters")
-    private String content;
+    // Размер текста решения в байтах; сам текст - GET /api/assignments/submissions/{id}/content
+    private Integer contentSize;
 
     @PastOrPresent(message = "Submission date must be in the past or present")
     private LocalDateTime submittedAt;
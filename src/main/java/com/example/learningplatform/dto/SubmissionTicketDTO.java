@@ -0,0 +1,21 @@
+package com.example.learningplatform.dto;
+
+import com.example.learningplatform.service.quiz.SubmissionTicketStatus;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SubmissionTicketDTO {
+    private String ticketId;
+    private SubmissionTicketStatus status;
+    private Long quizId;
+    private String quizTitle;
+    private Long studentId;
+    private String studentName;
+    private LocalDateTime submittedAt;
+
+    // Заполняются после обработки
+    private Integer score;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.example.learningplatform.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long courseId;
+    private Long studentId;
+    // Начиная с 1
+    private long position;
+    private LocalDateTime createdAt;
+}
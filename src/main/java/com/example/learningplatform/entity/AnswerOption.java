@@ -8,7 +8,8 @@ import lombok.Data;
 @Table(name = "answer_options")
 public class AnswerOption {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_option_id_generator")
+    @SequenceGenerator(name = "answer_option_id_generator", sequenceName = "answer_options_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
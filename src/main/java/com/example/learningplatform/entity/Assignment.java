@@ -29,6 +29,13 @@ public class Assignment {
     @Column(name = "max_score")
     private Integer maxScore = 100;
 
+    // Ставятся только планировщиком сроков (AssignmentDeadlineScheduler), из запроса не принимаются
+    @Column(name = "reminder_sent_at", insertable = false, updatable = false)
+    private LocalDateTime reminderSentAt;
+
+    @Column(name = "closed_at", insertable = false, updatable = false)
+    private LocalDateTime closedAt;
+
     // Связи
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_id", nullable = false)
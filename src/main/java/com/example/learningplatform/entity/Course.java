@@ -39,6 +39,23 @@ public class Course {
     @Column(name = "is_published")
     private Boolean isPublished = false;
 
+    // Лимит мест; null - без ограничения. Занятые места - enrolledCount
+    private Integer capacity;
+
+    // Денормализованные счётчики для карточек курса. Меняются только атомарными UPDATE
+    // (CourseRepository.adjust*Counters), поэтому сохранение сущности их не перезаписывает
+    @Column(name = "enrolled_count", nullable = false, updatable = false)
+    private int enrolledCount;
+
+    @Column(name = "active_count", nullable = false, updatable = false)
+    private int activeCount;
+
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private int ratingCount;
+
     // Связи
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
@@ -3,6 +3,7 @@ package com.example.learningplatform.entity;
 import com.example.learningplatform.entity.enums.EnrollmentStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -18,7 +19,9 @@ public class Enrollment {
     @Column(name = "enroll_date")
     private LocalDateTime enrollDate;
 
+    // Как DEFAULT в Liquibase: пакетная вставка (EnrollmentService.bulkEnroll) статус не передаёт
     @Enumerated(EnumType.STRING)
+    @ColumnDefault("'ACTIVE'")
     private EnrollmentStatus status = EnrollmentStatus.ACTIVE;
 
     private Integer progress = 0; // в процентах
@@ -13,8 +13,10 @@ import java.util.List;
 @Entity
 @Table(name = "questions")
 public class Question {
+    // Пулы id по 50 вместо IDENTITY: Hibernate может батчить вставки (см. 004-quiz/001-pooled-id-sequences.xml)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_id_generator")
+    @SequenceGenerator(name = "question_id_generator", sequenceName = "questions_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
@@ -14,7 +14,8 @@ import java.util.List;
 @Table(name = "quizzes")
 public class Quiz {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_id_generator")
+    @SequenceGenerator(name = "quiz_id_generator", sequenceName = "quizzes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +26,10 @@ public class Quiz {
     @Column(name = "time_limit")
     private long timeLimit;
 
+    // Сколько вопросов из банка теста получает один студент; null - все вопросы
+    @Column(name = "questions_per_attempt")
+    private Integer questionsPerAttempt;
+
     // Связи
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "module_id")
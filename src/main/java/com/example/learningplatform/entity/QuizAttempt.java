@@ -0,0 +1,36 @@
+package com.example.learningplatform.entity;
+
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "quiz_attempts")
+public class QuizAttempt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private QuizAttemptStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    // null - у теста нет ограничения по времени
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
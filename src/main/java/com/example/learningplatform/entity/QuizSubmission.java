@@ -19,6 +19,10 @@ public class QuizSubmission {
     @Column(name = "taken_at")
     private LocalDateTime takenAt;
 
+    // Выбранные варианты по вопросам в упаковке QuizAnswerKey.packSelections; null у сдач до появления колонки
+    @Column(name = "answer_masks")
+    private byte[] answerMasks;
+
     // Связи
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_id", nullable = false)
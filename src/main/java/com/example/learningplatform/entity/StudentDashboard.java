@@ -0,0 +1,24 @@
+package com.example.learningplatform.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Готовая к отдаче страница студента (StudentDashboardDTO в JSON), см. StudentDashboardProjector.
+ */
+@Data
+@Entity
+@Table(name = "student_dashboards")
+public class StudentDashboard {
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "built_at", nullable = false)
+    private LocalDateTime builtAt;
+}
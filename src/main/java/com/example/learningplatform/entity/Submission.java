@@ -14,8 +14,12 @@ public class Submission {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // Текст решения лежит в submission_contents (SubmissionContentStore): здесь только его хеш и размер в байтах
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_size")
+    private Integer contentSize;
 
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
@@ -0,0 +1,36 @@
+package com.example.learningplatform.entity;
+
+import com.example.learningplatform.entity.enums.ContentEncoding;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Текст решения, вынесенный из submissions: одна строка на уникальное содержимое, см. SubmissionContentStore.
+ */
+@Data
+@Entity
+@Table(name = "submission_contents")
+public class SubmissionContent {
+
+    public static final int MAX_STORED_BYTES = 16 * 1024 * 1024;
+
+    // SHA-256 исходного текста в UTF-8, hex
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ContentEncoding encoding;
+
+    @Column(name = "original_size", nullable = false)
+    private Integer originalSize;
+
+    @Column(nullable = false, length = MAX_STORED_BYTES)
+    private byte[] data;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
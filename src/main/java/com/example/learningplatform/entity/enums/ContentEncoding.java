@@ -0,0 +1,6 @@
+package com.example.learningplatform.entity.enums;
+
+public enum ContentEncoding {
+    IDENTITY,
+    DEFLATE
+}
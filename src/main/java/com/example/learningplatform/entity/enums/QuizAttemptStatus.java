@@ -0,0 +1,7 @@
+package com.example.learningplatform.entity.enums;
+
+public enum QuizAttemptStatus {
+    IN_PROGRESS,
+    SUBMITTED,
+    EXPIRED
+}
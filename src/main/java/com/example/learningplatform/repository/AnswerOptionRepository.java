@@ -7,13 +7,28 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AnswerOptionRepository extends JpaRepository<AnswerOption, Long> {
     List<AnswerOption> findByQuestionId(Long questionId);
 
+    // Варианты всех вопросов теста одним запросом
+    @Query("SELECT ao FROM AnswerOption ao WHERE ao.question.id IN :questionIds ORDER BY ao.id")
+    List<AnswerOption> findByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+
     @Modifying
     @Query("DELETE FROM AnswerOption ao WHERE ao.question.id = :questionId")
     void deleteByQuestionId(@Param("questionId") Long questionId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AnswerOption ao WHERE ao.question.id IN " +
+            "(SELECT q.id FROM Question q WHERE q.quiz.id = :quizId)")
+    int deleteByQuizId(@Param("quizId") Long quizId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AnswerOption ao WHERE ao.question.id IN " +
+            "(SELECT q.id FROM Question q WHERE q.quiz.course.id = :courseId)")
+    int deleteByCourseId(@Param("courseId") Long courseId);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Assignment;
+import com.example.learningplatform.repository.projection.AssignmentDeadlineRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +19,28 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     @Query("SELECT a FROM Assignment a WHERE a.lesson.module.course.id = :courseId")
     List<Assignment> findByCourseId(@Param("courseId") Long courseId);
 
+    @Query("SELECT a.maxScore FROM Assignment a WHERE a.id = :id")
+    Optional<Integer> findMaxScoreById(@Param("id") Long id);
+
+    // Окна сроков для планировщика: только открытые задания, по частичному индексу на due_date
+    @Query("SELECT new com.example.learningplatform.repository.projection.AssignmentDeadlineRow(" +
+            "a.id, a.dueDate, a.reminderSentAt) " +
+            "FROM Assignment a WHERE a.closedAt IS NULL AND a.dueDate <= :to")
+    List<AssignmentDeadlineRow> findOpenDeadlinesUntil(@Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.example.learningplatform.repository.projection.AssignmentDeadlineRow(" +
+            "a.id, a.dueDate, a.reminderSentAt) " +
+            "FROM Assignment a WHERE a.closedAt IS NULL AND a.dueDate > :from AND a.dueDate <= :to")
+    List<AssignmentDeadlineRow> findOpenDeadlinesBetween(@Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to);
+
+    // Студенты курса задания с активной записью, которые ещё не сдали решение
+    @Query("SELECT e.student.id FROM Enrollment e, Assignment a " +
+            "WHERE a.id = :assignmentId AND e.course = a.lesson.module.course " +
+            "AND e.status = com.example.learningplatform.entity.enums.EnrollmentStatus.ACTIVE " +
+            "AND NOT EXISTS (SELECT s.id FROM Submission s WHERE s.assignment = a AND s.student = e.student)")
+    List<Long> findPendingStudentIds(@Param("assignmentId") Long assignmentId);
+
     @Query("SELECT a FROM Assignment a LEFT JOIN FETCH a.submissions WHERE a.id = :id")
     Optional<Assignment> findByIdWithSubmissions(@Param("id") Long id);
 }
\ No newline at end of file
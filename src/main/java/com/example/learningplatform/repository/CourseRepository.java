@@ -1,11 +1,19 @@
 package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.repository.projection.CourseSummaryView;
+import com.example.learningplatform.repository.projection.CourseTagRow;
+import com.example.learningplatform.repository.projection.CourseTitleRow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +21,92 @@ import java.util.Optional;
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByCategoryId(Long categoryId);
     List<Course> findByTeacherId(Long teacherId);
+
+    @Query("SELECT c.id FROM Course c WHERE c.teacher.id = :teacherId")
+    List<Long> findIdsByTeacherId(@Param("teacherId") Long teacherId);
     List<Course> findByIsPublishedTrue();
 
+    // Поля карточки курса без description и без гидратации сущностей
+    String SUMMARY_SELECT = "SELECT new com.example.learningplatform.repository.projection.CourseSummaryView(" +
+            "c.id, c.title, c.price, c.isPublished, cat.id, cat.name, t.id, t.name, " +
+            "c.enrolledCount, c.ratingSum, c.ratingCount) " +
+            "FROM Course c LEFT JOIN c.category cat JOIN c.teacher t ";
+
+    // Keyset-пагинация: WHERE id > :cursor ORDER BY id LIMIT n, без OFFSET
+    @Query(SUMMARY_SELECT + "WHERE c.id > :cursor ORDER BY c.id")
+    List<CourseSummaryView> findSummariesAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE c.isPublished = true AND c.id > :cursor ORDER BY c.id")
+    List<CourseSummaryView> findPublishedSummariesAfter(@Param("cursor") Long cursor, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE c.category.id = :categoryId AND c.id > :cursor ORDER BY c.id")
+    List<CourseSummaryView> findSummariesByCategoryAfter(@Param("categoryId") Long categoryId,
+                                                         @Param("cursor") Long cursor, Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE c.teacher.id = :teacherId AND c.id > :cursor ORDER BY c.id")
+    List<CourseSummaryView> findSummariesByTeacherAfter(@Param("teacherId") Long teacherId,
+                                                        @Param("cursor") Long cursor, Limit limit);
+
+    // Теги для целой страницы курсов одним запросом вместо ленивой загрузки по курсу
+    @Query("SELECT new com.example.learningplatform.repository.projection.CourseTagRow(c.id, t.name) " +
+            "FROM Course c JOIN c.tags t WHERE c.id IN :courseIds")
+    List<CourseTagRow> findTagNamesByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount + :enrolled, " +
+            "c.activeCount = c.activeCount + :active WHERE c.id = :id")
+    int adjustEnrollmentCounters(@Param("id") Long id, @Param("enrolled") int enrolled, @Param("active") int active);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.ratingSum = c.ratingSum + :ratingSum, " +
+            "c.ratingCount = c.ratingCount + :ratingCount WHERE c.id = :id")
+    int adjustRatingCounters(@Param("id") Long id, @Param("ratingSum") long ratingSum,
+                             @Param("ratingCount") int ratingCount);
+
+    // Атомарное занятие мест: строка меняется, только если места есть; параллельные записи
+    // на один курс выстраиваются на блокировке строки courses, и условие проверяется заново
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount + :seats, c.activeCount = c.activeCount + :seats " +
+            "WHERE c.id = :id AND (c.capacity IS NULL OR c.enrolledCount + :seats <= c.capacity)")
+    int reserveSeats(@Param("id") Long id, @Param("seats") int seats);
+
+    // Блокирует строку заполненного курса (пустой UPDATE) - 1, если мест нет. Пока блокировка держится,
+    // освобождение места ждёт, поэтому новая запись в листе ожидания не разминётся с продвижением очереди
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount " +
+            "WHERE c.id = :id AND c.capacity IS NOT NULL AND c.enrolledCount >= c.capacity")
+    int lockIfFull(@Param("id") Long id);
+
+    // Курсы, у которых счётчики разошлись с фактическими записями и отзывами
+    @Query(value = "SELECT c.id FROM courses c " +
+            "LEFT JOIN (SELECT course_id, COUNT(*) AS enrolled, " +
+            "SUM(CASE WHEN status = 'ACTIVE' THEN 1 ELSE 0 END) AS active " +
+            "FROM enrollments GROUP BY course_id) e ON e.course_id = c.id " +
+            "LEFT JOIN (SELECT course_id, SUM(rating) AS rating_sum, COUNT(rating) AS rating_count " +
+            "FROM course_reviews GROUP BY course_id) r ON r.course_id = c.id " +
+            "WHERE c.enrolled_count <> COALESCE(e.enrolled, 0) OR c.active_count <> COALESCE(e.active, 0) " +
+            "OR c.rating_sum <> COALESCE(r.rating_sum, 0) OR c.rating_count <> COALESCE(r.rating_count, 0) " +
+            "ORDER BY c.id", nativeQuery = true)
+    List<Long> findIdsWithDriftedCounters();
+
+    // Блокировка строк перед пересчётом: ждёт живые записи, чтобы пересчёт отдельным запросом
+    // взял снимок уже после их коммита; порядок по id - чтобы пачки не встречались в дедлоке
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Long> lockIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE courses SET " +
+            "enrolled_count = (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = courses.id), " +
+            "active_count = (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = courses.id AND e.status = 'ACTIVE'), " +
+            "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM course_reviews r WHERE r.course_id = courses.id), " +
+            "rating_count = (SELECT COUNT(r.rating) FROM course_reviews r WHERE r.course_id = courses.id) " +
+            "WHERE id IN :ids", nativeQuery = true)
+    int recomputeCounters(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.modules WHERE c.id = :id")
     Optional<Course> findByIdWithModules(@Param("id") Long id);
 
@@ -27,6 +119,25 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("SELECT c FROM Course c JOIN c.tags t WHERE t.name = :tagName")
     List<Course> findByTagName(@Param("tagName") String tagName);
 
-    @Query("SELECT c FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Course> searchCourses(@Param("query") String query);
+    @Query("SELECT new com.example.learningplatform.repository.projection.CourseTitleRow(c.id, c.title) " +
+            "FROM Course c WHERE c.isPublished = true")
+    List<CourseTitleRow> findPublishedTitles();
+
+    @Query(SUMMARY_SELECT + "WHERE c.id IN :ids")
+    List<CourseSummaryView> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Только PostgreSQL: колонка search_vector и GIN-индекс создаются миграцией 003-catalog/002
+    @Query(value = "SELECT c.id FROM courses c " +
+            "WHERE c.search_vector @@ to_tsquery('simple', :tsQuery) " +
+            "ORDER BY ts_rank(c.search_vector, to_tsquery('simple', :tsQuery)) DESC, c.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> fullTextSearchIds(@Param("tsQuery") String tsQuery,
+                                 @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query(value = "SELECT c.id FROM courses c " +
+            "WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(c.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY c.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Long> likeSearchIds(@Param("query") String query,
+                             @Param("offset") long offset, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.learningplatform.repository;
+
+import com.example.learningplatform.entity.CourseWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CourseWaitlistRepository extends JpaRepository<CourseWaitlistEntry, Long> {
+    boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
+    Optional<CourseWaitlistEntry> findFirstByCourseIdOrderByIdAsc(Long courseId);
+    List<CourseWaitlistEntry> findByCourseIdOrderByIdAsc(Long courseId);
+
+    // Позиция в очереди - число стоящих впереди
+    long countByCourseIdAndIdLessThan(Long courseId, Long id);
+
+    @Modifying
+    @Query("DELETE FROM CourseWaitlistEntry w WHERE w.courseId = :courseId AND w.studentId = :studentId")
+    int deleteByCourseIdAndStudentId(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+}
@@ -2,13 +2,22 @@ package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Enrollment;
 import com.example.learningplatform.entity.enums.EnrollmentStatus;
+import com.example.learningplatform.repository.projection.EnrollmentKeyRow;
+import com.example.learningplatform.repository.projection.RosterRow;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
@@ -18,9 +27,29 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByStatus(EnrollmentStatus status);
     boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
 
+    @Query("SELECT new com.example.learningplatform.repository.projection.EnrollmentKeyRow(e.id, e.student.id, e.course.id) " +
+            "FROM Enrollment e WHERE e.course.id = :courseId AND e.student.id IN :studentIds")
+    List<EnrollmentKeyRow> findKeysByCourseIdAndStudentIds(@Param("courseId") Long courseId,
+                                                           @Param("studentIds") Collection<Long> studentIds);
+
+    @Query("SELECT new com.example.learningplatform.repository.projection.EnrollmentKeyRow(e.id, e.student.id, e.course.id) " +
+            "FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id IN :courseIds")
+    List<EnrollmentKeyRow> findKeysByStudentIdAndCourseIds(@Param("studentId") Long studentId,
+                                                           @Param("courseIds") Collection<Long> courseIds);
+
     @Query("SELECT e FROM Enrollment e LEFT JOIN FETCH e.course WHERE e.student.id = :studentId")
     List<Enrollment> findByStudentIdWithCourse(@Param("studentId") Long studentId);
 
     @Query("SELECT e FROM Enrollment e LEFT JOIN FETCH e.student WHERE e.course.id = :courseId")
     List<Enrollment> findByCourseIdWithStudent(@Param("courseId") Long courseId);
+
+    // Курсор для выгрузки: строки подтягиваются пачками по fetch size, поток нужно закрыть и читать в транзакции
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.learningplatform.repository.projection.RosterRow(" +
+            "e.id, s.id, s.name, s.email, e.enrollDate, e.status, e.progress) " +
+            "FROM Enrollment e JOIN e.student s WHERE e.course.id = :courseId ORDER BY e.id")
+    Stream<RosterRow> streamRosterByCourseId(@Param("courseId") Long courseId);
 }
\ No newline at end of file
@@ -13,7 +13,13 @@ import java.util.List;
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuizId(Long quizId);
 
+    List<Question> findByQuizIdOrderByIdAsc(Long quizId);
+
     @Modifying
     @Query("DELETE FROM Question q WHERE q.quiz.id = :quizId")
     void deleteByQuizId(@Param("quizId") Long quizId);
+
+    @Modifying
+    @Query("DELETE FROM Question q WHERE q.quiz.id IN (SELECT z.id FROM Quiz z WHERE z.course.id = :courseId)")
+    int deleteByCourseId(@Param("courseId") Long courseId);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.example.learningplatform.repository;
+
+import com.example.learningplatform.entity.QuizAttempt;
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+    Optional<QuizAttempt> findFirstByQuizIdAndStudentIdAndStatus(Long quizId, Long studentId, QuizAttemptStatus status);
+
+    // Попытки без ограничения по времени в памяти не держим - их проверяет база
+    List<QuizAttempt> findByStatusAndExpiresAtIsNotNull(QuizAttemptStatus status);
+
+    // Условное завершение: из двух гонок (сдача и истечение времени) выигрывает только одна
+    @Modifying
+    @Query("UPDATE QuizAttempt a SET a.status = :status, a.finishedAt = :finishedAt " +
+            "WHERE a.id = :id AND a.status = com.example.learningplatform.entity.enums.QuizAttemptStatus.IN_PROGRESS")
+    int finish(@Param("id") Long id, @Param("status") QuizAttemptStatus status,
+               @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -1,11 +1,16 @@
 package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Quiz;
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +19,43 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     Optional<Quiz> findByModuleId(Long moduleId);
     List<Quiz> findByCourseId(Long courseId);
 
-    @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.questions ques LEFT JOIN FETCH ques.options WHERE q.id = :id")
-    Optional<Quiz> findByIdWithQuestionsAndOptions(@Param("id") Long id);
+    // Модуль и курс нужны для заголовка QuizDetailDTO; коллекции сюда не тянем, чтобы не получить декартово произведение
+    @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.module LEFT JOIN FETCH q.course WHERE q.id = :id")
+    Optional<Quiz> findByIdWithModuleAndCourse(@Param("id") Long id);
 
     @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.questions WHERE q.id = :id")
     Optional<Quiz> findByIdWithQuestions(@Param("id") Long id);
 
     @Query("SELECT q FROM Quiz q LEFT JOIN FETCH q.questions ques LEFT JOIN FETCH ques.options LEFT JOIN FETCH q.quizSubmissions WHERE q.id = :id")
     Optional<Quiz> findByIdWithQuestionsAndSubmissions(@Param("id") Long id);
-}
\ No newline at end of file
+
+    // Удаление блокирует строки тестов до проверки сдач, сдача держит разделяемую блокировку до вставки:
+    // удаление либо увидит сдачу, либо сдача не найдёт тест
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q.id FROM Quiz q WHERE q.id = :id")
+    Optional<Long> lockIdForDelete(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT q.id FROM Quiz q WHERE q.course.id = :courseId ORDER BY q.id")
+    List<Long> lockIdsForDeleteByCourseId(@Param("courseId") Long courseId);
+
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT q.id FROM Quiz q WHERE q.id IN :ids ORDER BY q.id")
+    List<Long> lockIdsForSubmission(@Param("ids") Collection<Long> ids);
+
+    // Массовые удаления обходят каскады, поэтому контекст сбрасываем: загруженные тесты уже не существуют
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Quiz q WHERE q.id = :id")
+    void deleteQuizById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Quiz q WHERE q.course.id = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    // Ключ ответов одним запросом; строка с questionId = null означает тест без вопросов
+    @Query("SELECT new com.example.learningplatform.repository.projection.AnswerKeyRow(" +
+            "q.title, ques.id, ques.points, o.id, o.isCorrect, q.questionsPerAttempt) " +
+            "FROM Quiz q LEFT JOIN q.questions ques LEFT JOIN ques.options o " +
+            "WHERE q.id = :id ORDER BY ques.id, o.id")
+    List<AnswerKeyRow> findAnswerKeyRows(@Param("id") Long id);
+}
@@ -1,6 +1,8 @@
 package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.QuizSubmission;
+import com.example.learningplatform.repository.projection.LeaderboardRow;
+import com.example.learningplatform.repository.projection.SubmissionAnswersRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,12 +14,25 @@ import java.util.Optional;
 @Repository
 public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Long> {
     Optional<QuizSubmission> findByStudentIdAndQuizId(Long studentId, Long quizId);
+    boolean existsByStudentIdAndQuizId(Long studentId, Long quizId);
+    boolean existsByQuizId(Long quizId);
+    boolean existsByQuizCourseId(Long courseId);
     List<QuizSubmission> findByStudentId(Long studentId);
     List<QuizSubmission> findByQuizId(Long quizId);
 
+    // Сдачи до появления answer_masks в аналитику не попадают
+    @Query("SELECT new com.example.learningplatform.repository.projection.SubmissionAnswersRow(qs.student.id, qs.score, qs.answerMasks) " +
+            "FROM QuizSubmission qs WHERE qs.quiz.id = :quizId AND qs.answerMasks IS NOT NULL")
+    List<SubmissionAnswersRow> findAnswersByQuizId(@Param("quizId") Long quizId);
+
     @Query("SELECT qs FROM QuizSubmission qs LEFT JOIN FETCH qs.quiz WHERE qs.student.id = :studentId")
     List<QuizSubmission> findByStudentIdWithQuiz(@Param("studentId") Long studentId);
 
     @Query("SELECT qs FROM QuizSubmission qs LEFT JOIN FETCH qs.student WHERE qs.quiz.id = :quizId")
     List<QuizSubmission> findByQuizIdWithStudent(@Param("quizId") Long quizId);
+
+    // То же, что findByQuizIdWithStudent, но без сущностей: User тянет за собой профиль отдельным запросом
+    @Query("SELECT new com.example.learningplatform.repository.projection.LeaderboardRow(" +
+            "s.id, s.name, qs.score, qs.takenAt) FROM QuizSubmission qs JOIN qs.student s WHERE qs.quiz.id = :quizId")
+    List<LeaderboardRow> findLeaderboardRows(@Param("quizId") Long quizId);
 }
\ No newline at end of file
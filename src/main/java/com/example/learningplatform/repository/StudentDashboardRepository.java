@@ -0,0 +1,9 @@
+package com.example.learningplatform.repository;
+
+import com.example.learningplatform.entity.StudentDashboard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StudentDashboardRepository extends JpaRepository<StudentDashboard, Long> {
+}
@@ -0,0 +1,9 @@
+package com.example.learningplatform.repository;
+
+import com.example.learningplatform.entity.SubmissionContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SubmissionContentRepository extends JpaRepository<SubmissionContent, String> {
+}
@@ -1,11 +1,13 @@
 package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Submission;
+import com.example.learningplatform.repository.projection.SubmissionKeyRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +22,17 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
     @Query("SELECT s FROM Submission s LEFT JOIN FETCH s.student WHERE s.assignment.id = :assignmentId")
     List<Submission> findByAssignmentIdWithStudent(@Param("assignmentId") Long assignmentId);
+
+    // Студенты, чьи решения уйдут каскадом вместе с уроком
+    @Query("SELECT DISTINCT s.student.id FROM Submission s WHERE s.assignment.lesson.id = :lessonId")
+    List<Long> findStudentIdsByLessonId(@Param("lessonId") Long lessonId);
+
+    // Пустая строка - решение без текста
+    @Query("SELECT COALESCE(s.contentHash, '') FROM Submission s WHERE s.id = :id")
+    Optional<String> findContentHashById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.learningplatform.repository.projection.SubmissionKeyRow(s.id, s.student.id, s.assignment.id) " +
+            "FROM Submission s WHERE s.assignment.id = :assignmentId AND s.id IN :ids")
+    List<SubmissionKeyRow> findKeysByAssignmentIdAndIds(@Param("assignmentId") Long assignmentId,
+                                                        @Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
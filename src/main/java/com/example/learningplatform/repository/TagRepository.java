@@ -2,12 +2,17 @@ package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
     boolean existsByName(String name);
+
+    @Query("SELECT t.name FROM Tag t")
+    List<String> findAllNames();
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package com.example.learningplatform.repository;
 
 import com.example.learningplatform.entity.User;
 import com.example.learningplatform.entity.enums.UserRole;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(UserRole role);
     boolean existsByEmail(String email);
 
+    // Только id, без загрузки сущностей: User тянет за собой профиль отдельным запросом
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset-обход id пользователей с ролью (пересборка read-моделей)
+    @Query("SELECT u.id FROM User u WHERE u.role = :role AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByRoleAfter(@Param("role") UserRole role, @Param("afterId") Long afterId, Limit limit);
+
+    // Студенты, чьи записи, сдачи и отзывы уйдут каскадом вместе с курсами: их страницы нужно пересобрать
+    @Query(value = "SELECT student_id FROM enrollments WHERE course_id IN (:courseIds) " +
+            "UNION SELECT s.student_id FROM submissions s JOIN assignments a ON a.id = s.assignment_id " +
+            "JOIN lessons l ON l.id = a.lesson_id JOIN modules m ON m.id = l.module_id WHERE m.course_id IN (:courseIds) " +
+            "UNION SELECT qs.student_id FROM quiz_submissions qs JOIN quizzes q ON q.id = qs.quiz_id " +
+            "WHERE q.course_id IN (:courseIds) " +
+            "UNION SELECT student_id FROM course_reviews WHERE course_id IN (:courseIds)", nativeQuery = true)
+    List<Long> findStudentIdsWithActivityInCourses(@Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT u.name FROM User u WHERE u.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.coursesTaught WHERE u.id = :id")
     Optional<User> findByIdWithCourses(@Param("id") Long id);
 
@@ -0,0 +1,13 @@
+package com.example.learningplatform.repository.projection;
+
+public record AnswerKeyRow(String quizTitle,
+                           Long questionId,
+                           Integer points,
+                           Long optionId,
+                           Boolean correct,
+                           Integer questionsPerAttempt) {
+
+    public AnswerKeyRow(String quizTitle, Long questionId, Integer points, Long optionId, Boolean correct) {
+        this(quizTitle, questionId, points, optionId, correct, null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.learningplatform.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record AssignmentDeadlineRow(Long id, LocalDateTime dueDate, LocalDateTime reminderSentAt) {
+}
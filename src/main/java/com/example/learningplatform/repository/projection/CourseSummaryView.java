@@ -0,0 +1,16 @@
+package com.example.learningplatform.repository.projection;
+
+import java.math.BigDecimal;
+
+public record CourseSummaryView(Long id,
+                                String title,
+                                BigDecimal price,
+                                Boolean isPublished,
+                                Long categoryId,
+                                String categoryName,
+                                Long teacherId,
+                                String teacherName,
+                                int enrolledCount,
+                                long ratingSum,
+                                int ratingCount) {
+}
@@ -0,0 +1,4 @@
+package com.example.learningplatform.repository.projection;
+
+public record CourseTagRow(Long courseId, String tagName) {
+}
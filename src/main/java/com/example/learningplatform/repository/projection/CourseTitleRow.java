@@ -0,0 +1,4 @@
+package com.example.learningplatform.repository.projection;
+
+public record CourseTitleRow(Long id, String title) {
+}
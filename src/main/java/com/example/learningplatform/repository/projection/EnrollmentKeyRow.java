@@ -0,0 +1,4 @@
+package com.example.learningplatform.repository.projection;
+
+public record EnrollmentKeyRow(Long id, Long studentId, Long courseId) {
+}
@@ -0,0 +1,6 @@
+package com.example.learningplatform.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record LeaderboardRow(Long studentId, String studentName, Integer score, LocalDateTime takenAt) {
+}
@@ -0,0 +1,18 @@
+package com.example.learningplatform.repository.projection;
+
+import com.example.learningplatform.entity.enums.EnrollmentStatus;
+
+import java.time.LocalDateTime;
+
+public record RosterRow(Long enrollmentId,
+                        Long studentId,
+                        String studentName,
+                        String studentEmail,
+                        LocalDateTime enrollDate,
+                        EnrollmentStatus status,
+                        Integer progress) {
+
+    public RosterRow withProgress(Integer progress) {
+        return new RosterRow(enrollmentId, studentId, studentName, studentEmail, enrollDate, status, progress);
+    }
+}
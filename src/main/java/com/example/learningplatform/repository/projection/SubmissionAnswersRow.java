@@ -0,0 +1,4 @@
+package com.example.learningplatform.repository.projection;
+
+public record SubmissionAnswersRow(Long studentId, Integer score, byte[] answerMasks) {
+}
@@ -0,0 +1,4 @@
+package com.example.learningplatform.repository.projection;
+
+public record SubmissionKeyRow(Long id, Long studentId, Long assignmentId) {
+}
@@ -1,6 +1,11 @@
 package com.example.learningplatform.service;
 
 import com.example.learningplatform.dto.AssignmentDTO;
+import com.example.learningplatform.dto.BulkGradeRequest;
+import com.example.learningplatform.dto.BulkGradeRequest.GradeEntry;
+import com.example.learningplatform.dto.BulkGradeResponseDTO;
+import com.example.learningplatform.dto.BulkGradeResultDTO;
+import com.example.learningplatform.dto.BulkGradeResultDTO.Outcome;
 import com.example.learningplatform.dto.SubmissionDTO;
 import com.example.learningplatform.entity.Assignment;
 import com.example.learningplatform.entity.Lesson;
@@ -11,12 +16,19 @@ import com.example.learningplatform.repository.AssignmentRepository;
 import com.example.learningplatform.repository.LessonRepository;
 import com.example.learningplatform.repository.SubmissionRepository;
 import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.repository.projection.SubmissionKeyRow;
+import com.example.learningplatform.service.assignment.AssignmentDeadlineScheduler;
+import com.example.learningplatform.service.assignment.SubmissionContentStore;
+import com.example.learningplatform.service.assignment.SubmissionContentStore.StoredContent;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,6 +41,16 @@ public class AssignmentService {
     private final SubmissionRepository submissionRepository;
     private final LessonRepository lessonRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AssignmentDeadlineScheduler deadlineScheduler;
+    private final JdbcTemplate jdbcTemplate;
+    private final SubmissionContentStore contentStore;
+
+    // assignment_id в условии: оценка не попадёт в чужое задание, даже если решение перенесли между проверкой и записью
+    private static final String BULK_GRADE_SQL =
+            "UPDATE submissions SET score = ?, feedback = ? WHERE id = ? AND assignment_id = ?";
+
+    private static final int BULK_GRADE_BATCH_SIZE = 50;
 
     public AssignmentDTO createAssignment(Assignment assignment, Long lessonId) {
         Lesson lesson = lessonRepository.findById(lessonId)
@@ -36,6 +58,7 @@ public class AssignmentService {
 
         assignment.setLesson(lesson);
         Assignment savedAssignment = assignmentRepository.save(assignment);
+        deadlineScheduler.track(savedAssignment.getId(), savedAssignment.getDueDate());
         log.info("Created assignment with id: {}", savedAssignment.getId());
         return convertToDTO(savedAssignment);
     }
@@ -44,6 +67,10 @@ public class AssignmentService {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment not found with id: " + assignmentId));
 
+        if (assignment.getClosedAt() != null) {
+            throw new IllegalStateException("Assignment is closed for submissions since " + assignment.getClosedAt());
+        }
+
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
 
@@ -55,9 +82,12 @@ public class AssignmentService {
         Submission submission = new Submission();
         submission.setAssignment(assignment);
         submission.setStudent(student);
-        submission.setContent(content);
+        StoredContent storedContent = contentStore.store(content);
+        submission.setContentHash(storedContent.hash());
+        submission.setContentSize(storedContent.size());
 
         Submission savedSubmission = submissionRepository.save(submission);
+        eventPublisher.publishEvent(new StudentActivityEvent(studentId));
         log.info("Student {} submitted assignment {}", studentId, assignmentId);
         return convertToSubmissionDTO(savedSubmission);
     }
@@ -74,10 +104,97 @@ public class AssignmentService {
         submission.setFeedback(feedback);
 
         Submission updatedSubmission = submissionRepository.save(submission);
+        eventPublisher.publishEvent(new StudentActivityEvent(submission.getStudent().getId()));
         log.info("Graded submission {} with score {}", submissionId, score);
         return convertToSubmissionDTO(updatedSubmission);
     }
 
+    /**
+     * Оценивает пачку решений одного задания: maxScore читается один раз, принадлежность решений
+     * заданию проверяется одной выборкой, а оценки пишутся одним JDBC batch. Ошибочные строки не
+     * прерывают пачку - результат по каждой строке возвращается в порядке запроса.
+     */
+    public BulkGradeResponseDTO gradeSubmissions(Long assignmentId, BulkGradeRequest request) {
+        Integer maxScore = assignmentRepository.findMaxScoreById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found with id: " + assignmentId));
+
+        List<GradeEntry> grades = request.getGrades();
+        Set<Long> submissionIds = grades.stream()
+                .map(GradeEntry::getSubmissionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, Long> studentIds = submissionIds.isEmpty()
+                ? Map.of()
+                : submissionRepository.findKeysByAssignmentIdAndIds(assignmentId, submissionIds).stream()
+                        .collect(Collectors.toMap(SubmissionKeyRow::id, SubmissionKeyRow::studentId));
+
+        BulkGradeResponseDTO response = new BulkGradeResponseDTO();
+        response.setAssignmentId(assignmentId);
+        response.setMaxScore(maxScore);
+        List<GradeEntry> accepted = new ArrayList<>();
+        List<BulkGradeResultDTO> acceptedResults = new ArrayList<>();
+        Set<Long> reported = new HashSet<>();
+        for (GradeEntry grade : grades) {
+            BulkGradeResultDTO result = new BulkGradeResultDTO();
+            result.setSubmissionId(grade.getSubmissionId());
+            result.setScore(grade.getScore());
+
+            if (grade.getSubmissionId() != null && !reported.add(grade.getSubmissionId())) {
+                result.setOutcome(Outcome.DUPLICATE_IN_REQUEST);
+            } else if (grade.getSubmissionId() == null || !studentIds.containsKey(grade.getSubmissionId())) {
+                result.setOutcome(Outcome.SUBMISSION_NOT_FOUND);
+            } else if (grade.getScore() == null || grade.getScore() < 0 || grade.getScore() > maxScore) {
+                result.setOutcome(Outcome.SCORE_OUT_OF_RANGE);
+            } else {
+                result.setOutcome(Outcome.GRADED);
+                accepted.add(grade);
+                acceptedResults.add(result);
+            }
+            response.getResults().add(result);
+        }
+
+        int[][] counts = accepted.isEmpty()
+                ? new int[0][]
+                : jdbcTemplate.batchUpdate(BULK_GRADE_SQL, accepted, BULK_GRADE_BATCH_SIZE, (ps, grade) -> {
+                    ps.setInt(1, grade.getScore());
+                    ps.setString(2, grade.getFeedback());
+                    ps.setLong(3, grade.getSubmissionId());
+                    ps.setLong(4, assignmentId);
+                });
+        Set<Long> gradedStudentIds = new HashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                BulkGradeResultDTO result = acceptedResults.get(index++);
+                // Решение удалили между выборкой и записью
+                if (count == 0) {
+                    result.setOutcome(Outcome.SUBMISSION_NOT_FOUND);
+                } else {
+                    gradedStudentIds.add(studentIds.get(result.getSubmissionId()));
+                }
+            }
+        }
+        gradedStudentIds.forEach(studentId -> eventPublisher.publishEvent(new StudentActivityEvent(studentId)));
+
+        for (BulkGradeResultDTO result : response.getResults()) {
+            if (result.getOutcome() == Outcome.GRADED) {
+                response.setGraded(response.getGraded() + 1);
+            } else {
+                response.setSkipped(response.getSkipped() + 1);
+            }
+        }
+        log.info("Bulk grading for assignment {}: {} graded, {} skipped", assignmentId,
+                response.getGraded(), response.getSkipped());
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public String getSubmissionContent(Long submissionId) {
+        String contentHash = submissionRepository.findContentHashById(submissionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Submission not found with id: " + submissionId));
+        return contentHash.isEmpty() ? "" : contentStore.load(contentHash);
+    }
+
     @Transactional(readOnly = true)
     public List<SubmissionDTO> getSubmissionsByAssignment(Long assignmentId) {
         return submissionRepository.findByAssignmentIdWithStudent(assignmentId).stream()
@@ -99,6 +216,7 @@ public class AssignmentService {
         dto.setDescription(assignment.getDescription());
         dto.setDueDate(assignment.getDueDate());
         dto.setMaxScore(assignment.getMaxScore());
+        dto.setClosedAt(assignment.getClosedAt());
         dto.setLessonId(assignment.getLesson().getId());
         dto.setLessonTitle(assignment.getLesson().getTitle());
         return dto;
@@ -107,7 +225,7 @@ public class AssignmentService {
     private SubmissionDTO convertToSubmissionDTO(Submission submission) {
         SubmissionDTO dto = new SubmissionDTO();
         dto.setId(submission.getId());
-        dto.setContent(submission.getContent());
+        dto.setContentSize(submission.getContentSize());
         dto.setSubmittedAt(submission.getSubmittedAt());
         dto.setScore(submission.getScore());
         dto.setFeedback(submission.getFeedback());
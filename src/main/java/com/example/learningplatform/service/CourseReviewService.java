@@ -9,8 +9,10 @@ import com.example.learningplatform.exception.ResourceNotFoundException;
 import com.example.learningplatform.repository.CourseRepository;
 import com.example.learningplatform.repository.CourseReviewRepository;
 import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class CourseReviewService {
     private final CourseReviewRepository courseReviewRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CourseReviewDTO createReview(Long studentId, CreateCourseReviewRequest request) {
         User student = userRepository.findById(studentId)
@@ -45,6 +48,8 @@ public class CourseReviewService {
         review.setComment(request.getComment());
 
         CourseReview savedReview = courseReviewRepository.save(review);
+        adjustRatingCounters(course.getId(), null, request.getRating());
+        eventPublisher.publishEvent(new StudentActivityEvent(studentId));
         log.info("Student {} created review for course {} with rating {}", studentId, request.getCourseId(), request.getRating());
 
         return convertToDTO(savedReview);
@@ -54,20 +59,23 @@ public class CourseReviewService {
         CourseReview review = courseReviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
 
+        adjustRatingCounters(review.getCourse().getId(), review.getRating(), request.getRating());
         review.setRating(request.getRating());
         review.setComment(request.getComment());
 
         CourseReview updatedReview = courseReviewRepository.save(review);
+        eventPublisher.publishEvent(new StudentActivityEvent(review.getStudent().getId()));
         log.info("Updated review with id: {}", reviewId);
 
         return convertToDTO(updatedReview);
     }
 
     public void deleteReview(Long reviewId) {
-        if (!courseReviewRepository.existsById(reviewId)) {
-            throw new ResourceNotFoundException("Review not found with id: " + reviewId);
-        }
-        courseReviewRepository.deleteById(reviewId);
+        CourseReview review = courseReviewRepository.findById(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Review not found with id: " + reviewId));
+        courseReviewRepository.delete(review);
+        adjustRatingCounters(review.getCourse().getId(), review.getRating(), null);
+        eventPublisher.publishEvent(new StudentActivityEvent(review.getStudent().getId()));
         log.info("Deleted review with id: {}", reviewId);
     }
 
@@ -97,6 +105,15 @@ public class CourseReviewService {
         return convertToDTO(review);
     }
 
+    // Отзыв без оценки в рейтинг не входит - так же, как в AVG(rating)
+    private void adjustRatingCounters(Long courseId, Integer oldRating, Integer newRating) {
+        long sumDelta = (newRating != null ? newRating : 0) - (oldRating != null ? oldRating : 0);
+        int countDelta = (newRating != null ? 1 : 0) - (oldRating != null ? 1 : 0);
+        if (sumDelta != 0 || countDelta != 0) {
+            courseRepository.adjustRatingCounters(courseId, sumDelta, countDelta);
+        }
+    }
+
     private CourseReviewDTO convertToDTO(CourseReview review) {
         CourseReviewDTO dto = new CourseReviewDTO();
         dto.setId(review.getId());
@@ -1,7 +1,10 @@
 package com.example.learningplatform.service;
 
 import com.example.learningplatform.dto.CourseDTO;
+import com.example.learningplatform.dto.CourseSuggestionDTO;
+import com.example.learningplatform.dto.CourseSummaryDTO;
 import com.example.learningplatform.dto.CreateCourseRequest;
+import com.example.learningplatform.dto.CursorPageDTO;
 import com.example.learningplatform.dto.CreateLessonRequest;
 import com.example.learningplatform.dto.CreateModuleRequest;
 import com.example.learningplatform.dto.LessonDTO;
@@ -17,16 +20,31 @@ import com.example.learningplatform.repository.CategoryRepository;
 import com.example.learningplatform.repository.CourseRepository;
 import com.example.learningplatform.repository.LessonRepository;
 import com.example.learningplatform.repository.ModuleRepository;
+import com.example.learningplatform.repository.SubmissionRepository;
 import com.example.learningplatform.repository.TagRepository;
 import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.repository.projection.CourseSummaryView;
+import com.example.learningplatform.repository.projection.CourseTagRow;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
+import com.example.learningplatform.service.enrollment.CourseWaitlist;
+import com.example.learningplatform.service.search.CourseSearchEngine;
+import com.example.learningplatform.service.search.CourseSuggestionIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,6 +59,20 @@ public class CourseService {
     private final TagRepository tagRepository;
     private final ModuleRepository moduleRepository;
     private final LessonRepository lessonRepository;
+    private final SubmissionRepository submissionRepository;
+    private final CourseSearchEngine courseSearchEngine;
+    private final CourseSuggestionIndex courseSuggestionIndex;
+    private final CourseWaitlist courseWaitlist;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.search.max-suggestions:20}")
+    private int maxSuggestions;
 
     public CourseDTO createCourse(CreateCourseRequest request) {
         User teacher = userRepository.findById(request.getTeacherId())
@@ -56,6 +88,7 @@ public class CourseService {
         course.setStartDate(request.getStartDate());
         course.setEndDate(request.getEndDate());
         course.setPrice(request.getPrice());
+        course.setCapacity(request.getCapacity());
         course.setCategory(category);
         course.setTeacher(teacher);
         course.setIsPublished(false);
@@ -73,6 +106,7 @@ public class CourseService {
         }
 
         Course savedCourse = courseRepository.save(course);
+        indexSuggestions(savedCourse);
         log.info("Created course with id: {}", savedCourse.getId());
         return convertToDTO(savedCourse);
     }
@@ -103,38 +137,68 @@ public class CourseService {
     }
 
     @Transactional(readOnly = true)
-    public List<CourseDTO> getAllCourses() {
-        return courseRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CourseSummaryDTO> getAllCourses(Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(courseRepository.findSummariesAfter(
+                startAfter(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<CourseDTO> getPublishedCourses() {
-        return courseRepository.findByIsPublishedTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CourseSummaryDTO> getPublishedCourses(Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(courseRepository.findPublishedSummariesAfter(
+                startAfter(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<CourseDTO> getCoursesByCategory(Long categoryId) {
-        return courseRepository.findByCategoryId(categoryId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CourseSummaryDTO> getCoursesByCategory(Long categoryId, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(courseRepository.findSummariesByCategoryAfter(
+                categoryId, startAfter(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<CourseDTO> getCoursesByTeacher(Long teacherId) {
-        return courseRepository.findByTeacherId(teacherId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CourseSummaryDTO> getCoursesByTeacher(Long teacherId, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        return toPage(courseRepository.findSummariesByTeacherAfter(
+                teacherId, startAfter(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<CourseDTO> searchCourses(String query) {
-        return courseRepository.searchCourses(query).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<CourseSummaryDTO> searchCourses(String query, Long cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // Результаты поиска упорядочены по релевантности, поэтому курсор здесь - позиция в выдаче
+        long offset = cursor != null ? cursor : 0L;
+        if (offset < 0) {
+            throw new IllegalArgumentException("Search cursor must not be negative");
+        }
+
+        List<Long> ids = courseSearchEngine.findCourseIds(query, offset, pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, CourseSummaryView> rowsById = pageIds.isEmpty() ? Collections.emptyMap()
+                : courseRepository.findSummariesByIds(pageIds).stream()
+                .collect(Collectors.toMap(CourseSummaryView::id, Function.identity()));
+        List<CourseSummaryView> rows = pageIds.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        CursorPageDTO<CourseSummaryDTO> page = toPage(rows, pageSize);
+        page.setHasNext(hasNext);
+        page.setNextCursor(hasNext ? offset + pageSize : null);
+        return page;
+    }
+
+    // Подсказки обслуживаются из памяти, транзакция и соединение с базой не нужны
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CourseSuggestionDTO> suggest(String prefix, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int resolvedLimit = limit != null ? Math.min(limit, maxSuggestions) : Math.min(10, maxSuggestions);
+        return courseSuggestionIndex.suggest(prefix, resolvedLimit);
     }
 
     public CourseDTO updateCourse(Long id, CreateCourseRequest request) {
@@ -147,6 +211,8 @@ public class CourseService {
         course.setStartDate(request.getStartDate());
         course.setEndDate(request.getEndDate());
         course.setPrice(request.getPrice());
+        boolean capacityChanged = !Objects.equals(course.getCapacity(), request.getCapacity());
+        course.setCapacity(request.getCapacity());
 
         if (!course.getCategory().getId().equals(request.getCategoryId())) {
             Category category = categoryRepository.findById(request.getCategoryId())
@@ -168,6 +234,11 @@ public class CourseService {
         }
 
         Course updatedCourse = courseRepository.save(course);
+        if (capacityChanged) {
+            // Новые места (если лимит вырос) достаются листу ожидания
+            courseWaitlist.promote(id);
+        }
+        indexSuggestions(updatedCourse);
         log.info("Updated course with id: {}", id);
         return convertToDTO(updatedCourse);
     }
@@ -177,6 +248,7 @@ public class CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         course.setIsPublished(true);
         courseRepository.save(course);
+        courseSuggestionIndex.indexCourse(id, course.getTitle(), true);
         log.info("Published course with id: {}", id);
     }
 
@@ -185,6 +257,7 @@ public class CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         course.setIsPublished(false);
         courseRepository.save(course);
+        courseSuggestionIndex.removeCourse(id);
         log.info("Unpublished course with id: {}", id);
     }
 
@@ -192,7 +265,11 @@ public class CourseService {
         if (!courseRepository.existsById(id)) {
             throw new ResourceNotFoundException("Course not found with id: " + id);
         }
+        // Записи, сдачи и отзывы курса уйдут каскадом - страницы их студентов нужно пересобрать
+        List<Long> affectedStudentIds = userRepository.findStudentIdsWithActivityInCourses(List.of(id));
         courseRepository.deleteById(id);
+        courseSuggestionIndex.removeCourse(id);
+        affectedStudentIds.forEach(studentId -> eventPublisher.publishEvent(new StudentActivityEvent(studentId)));
         log.info("Deleted course with id: {}", id);
     }
 
@@ -305,7 +382,9 @@ public class CourseService {
         Lesson lesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + lessonId));
 
+        List<Long> affectedStudentIds = submissionRepository.findStudentIdsByLessonId(lessonId);
         lessonRepository.delete(lesson);
+        affectedStudentIds.forEach(studentId -> eventPublisher.publishEvent(new StudentActivityEvent(studentId)));
         log.info("Deleted lesson with id: {}", lessonId);
     }
 
@@ -401,7 +480,75 @@ public class CourseService {
                 .collect(Collectors.toList());
     }
 
+    private void indexSuggestions(Course course) {
+        courseSuggestionIndex.indexCourse(course.getId(), course.getTitle(), Boolean.TRUE.equals(course.getIsPublished()));
+        courseSuggestionIndex.indexTags(course.getTags().stream().map(Tag::getName).toList());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private Long startAfter(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+
+    // Запрашиваем pageSize + 1 строк: лишняя строка лишь сигнализирует о наличии следующей страницы
+    private CursorPageDTO<CourseSummaryDTO> toPage(List<CourseSummaryView> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<CourseSummaryView> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        Map<Long, List<String>> tagsByCourseId = findTagNames(pageRows.stream().map(CourseSummaryView::id).toList());
+
+        CursorPageDTO<CourseSummaryDTO> page = new CursorPageDTO<>();
+        page.setItems(pageRows.stream()
+                .map(row -> convertToSummaryDTO(row,
+                        tagsByCourseId.getOrDefault(row.id(), Collections.emptyList())))
+                .collect(Collectors.toList()));
+        page.setHasNext(hasNext);
+        if (hasNext) {
+            page.setNextCursor(pageRows.get(pageRows.size() - 1).id());
+        }
+        return page;
+    }
+
+    private Map<Long, List<String>> findTagNames(List<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return courseRepository.findTagNamesByCourseIds(courseIds).stream()
+                .collect(Collectors.groupingBy(CourseTagRow::courseId,
+                        Collectors.mapping(CourseTagRow::tagName, Collectors.toList())));
+    }
+
+    private CourseSummaryDTO convertToSummaryDTO(CourseSummaryView row, List<String> tagNames) {
+        CourseSummaryDTO dto = new CourseSummaryDTO();
+        dto.setId(row.id());
+        dto.setTitle(row.title());
+        dto.setPrice(row.price());
+        dto.setIsPublished(row.isPublished());
+        dto.setCategoryId(row.categoryId());
+        dto.setCategoryName(row.categoryName());
+        dto.setTeacherId(row.teacherId());
+        dto.setTeacherName(row.teacherName());
+        dto.setEnrolledCount(row.enrolledCount());
+        dto.setRatingCount(row.ratingCount());
+        dto.setAverageRating(averageRating(row.ratingSum(), row.ratingCount()));
+        dto.setTags(new ArrayList<>(tagNames));
+        return dto;
+    }
+
     private CourseDTO convertToDTO(Course course) {
+        return convertToDTO(course, course.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+    }
+
+    private CourseDTO convertToDTO(Course course, List<String> tagNames) {
         CourseDTO dto = new CourseDTO();
         dto.setId(course.getId());
         dto.setTitle(course.getTitle());
@@ -410,6 +557,7 @@ public class CourseService {
         dto.setStartDate(course.getStartDate());
         dto.setEndDate(course.getEndDate());
         dto.setPrice(course.getPrice());
+        dto.setCapacity(course.getCapacity());
         dto.setIsPublished(course.getIsPublished());
 
         if (course.getCategory() != null) {
@@ -419,10 +567,18 @@ public class CourseService {
 
         dto.setTeacherId(course.getTeacher().getId());
         dto.setTeacherName(course.getTeacher().getName());
-        dto.setTags(course.getTags().stream().map(Tag::getName).collect(Collectors.toList()));
+        dto.setEnrolledCount(course.getEnrolledCount());
+        dto.setActiveCount(course.getActiveCount());
+        dto.setRatingCount(course.getRatingCount());
+        dto.setAverageRating(averageRating(course.getRatingSum(), course.getRatingCount()));
+        dto.setTags(new ArrayList<>(tagNames));
         return dto;
     }
 
+    private static Double averageRating(long ratingSum, int ratingCount) {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : null;
+    }
+
     private CourseDTO convertToDetailedDTO(Course course) {
         CourseDTO dto = convertToDTO(course);
 
@@ -1,20 +1,37 @@
 package com.example.learningplatform.service;
 
+import com.example.learningplatform.dto.BulkEnrollmentRequest;
+import com.example.learningplatform.dto.BulkEnrollmentResponseDTO;
+import com.example.learningplatform.dto.BulkEnrollmentResultDTO;
+import com.example.learningplatform.dto.BulkEnrollmentResultDTO.Outcome;
 import com.example.learningplatform.dto.EnrollmentDTO;
+import com.example.learningplatform.dto.WaitlistEntryDTO;
 import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.CourseWaitlistEntry;
 import com.example.learningplatform.entity.Enrollment;
 import com.example.learningplatform.entity.User;
 import com.example.learningplatform.entity.enums.EnrollmentStatus;
 import com.example.learningplatform.exception.ResourceNotFoundException;
 import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.CourseWaitlistRepository;
 import com.example.learningplatform.repository.EnrollmentRepository;
 import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.repository.projection.EnrollmentKeyRow;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
+import com.example.learningplatform.service.enrollment.CourseWaitlist;
+import com.example.learningplatform.service.enrollment.EnrollmentProgressBuffer;
+import com.example.learningplatform.service.support.TransactionHooks;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -26,6 +43,20 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EnrollmentProgressBuffer progressBuffer;
+    private final CourseWaitlistRepository courseWaitlistRepository;
+    private final CourseWaitlist courseWaitlist;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final String BULK_INSERT_SQL =
+            "INSERT INTO enrollments (student_id, course_id, enroll_date, progress) VALUES (?, ?, ?, 0)";
+
+    private static final int BULK_INSERT_BATCH_SIZE = 50;
+
+    // Postgres: параллельная запись того же студента не роняет всю пачку на уникальном ключе
+    @Value("${app.enrollment.bulk-insert-on-conflict:true}")
+    private boolean bulkInsertOnConflict;
 
     public EnrollmentDTO enrollStudent(Long studentId, Long courseId) {
         if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
@@ -38,6 +69,11 @@ public class EnrollmentService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
+        // Место занимается условным UPDATE до вставки: при гонке за последние места проверка и занятие неразделимы
+        if (courseRepository.reserveSeats(courseId, 1) == 0) {
+            throw new IllegalStateException("Course " + courseId + " is full, join the waitlist instead");
+        }
+
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
         enrollment.setCourse(course);
@@ -45,16 +81,224 @@ public class EnrollmentService {
         enrollment.setProgress(0);
 
         Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new StudentActivityEvent(studentId));
         log.info("Student {} enrolled in course {}", studentId, courseId);
         return convertToDTO(savedEnrollment);
     }
 
+    /**
+     * Запись группы студентов на курс (или студента на несколько курсов) за фиксированное число запросов:
+     * проверка курса или студента, одна выборка существующих id, одна выборка уже существующих записей,
+     * пакетная вставка и одна выборка id созданных записей. Результат - по строке на каждый элемент списка.
+     * Группа на один курс занимает места целиком: если мест на всех не хватает, новые записи получают COURSE_FULL.
+     */
+    public BulkEnrollmentResponseDTO bulkEnroll(BulkEnrollmentRequest request) {
+        boolean byCourse = request.getCourseId() != null && request.getStudentIds() != null;
+        boolean byStudent = request.getStudentId() != null && request.getCourseIds() != null;
+        if (byCourse == byStudent) {
+            throw new IllegalArgumentException("Specify either courseId with studentIds or studentId with courseIds");
+        }
+
+        Long anchorId = byCourse ? request.getCourseId() : request.getStudentId();
+        List<Long> targetIds = byCourse ? request.getStudentIds() : request.getCourseIds();
+        if (byCourse && !courseRepository.existsById(anchorId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + anchorId);
+        }
+        if (byStudent && !userRepository.existsById(anchorId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + anchorId);
+        }
+
+        Set<Long> uniqueTargetIds = targetIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (uniqueTargetIds.isEmpty()) {
+            throw new IllegalArgumentException("Bulk enrollment list must not be empty");
+        }
+
+        Set<Long> existingTargetIds = new HashSet<>(byCourse
+                ? userRepository.findExistingIds(uniqueTargetIds)
+                : courseRepository.findExistingIds(uniqueTargetIds));
+        Map<Long, Long> alreadyEnrolled = findEnrollmentIds(byCourse, anchorId, uniqueTargetIds);
+
+        List<Long> newTargetIds = uniqueTargetIds.stream()
+                .filter(existingTargetIds::contains)
+                .filter(targetId -> !alreadyEnrolled.containsKey(targetId))
+                .toList();
+        Set<Long> fullTargetIds = reserveSeatsForBulk(byCourse, anchorId, newTargetIds);
+        if (!fullTargetIds.isEmpty()) {
+            newTargetIds = newTargetIds.stream()
+                    .filter(targetId -> !fullTargetIds.contains(targetId))
+                    .toList();
+        }
+        Set<Long> insertedTargetIds = insertEnrollments(byCourse, anchorId, newTargetIds);
+        releaseUnusedSeats(byCourse, anchorId, newTargetIds, insertedTargetIds);
+        if (byCourse) {
+            insertedTargetIds.forEach(studentId -> eventPublisher.publishEvent(new StudentActivityEvent(studentId)));
+        } else if (!insertedTargetIds.isEmpty()) {
+            eventPublisher.publishEvent(new StudentActivityEvent(anchorId));
+        }
+        Map<Long, Long> createdEnrollments = newTargetIds.isEmpty()
+                ? Map.of()
+                : findEnrollmentIds(byCourse, anchorId, newTargetIds);
+
+        BulkEnrollmentResponseDTO response = new BulkEnrollmentResponseDTO();
+        Set<Long> reported = new HashSet<>();
+        for (Long targetId : targetIds) {
+            BulkEnrollmentResultDTO result = new BulkEnrollmentResultDTO();
+            result.setStudentId(byCourse ? targetId : anchorId);
+            result.setCourseId(byCourse ? anchorId : targetId);
+
+            if (targetId != null && !reported.add(targetId)) {
+                result.setOutcome(Outcome.DUPLICATE_IN_REQUEST);
+            } else if (targetId == null || !existingTargetIds.contains(targetId)) {
+                result.setOutcome(byCourse ? Outcome.STUDENT_NOT_FOUND : Outcome.COURSE_NOT_FOUND);
+            } else if (alreadyEnrolled.containsKey(targetId)) {
+                result.setOutcome(Outcome.ALREADY_ENROLLED);
+                result.setEnrollmentId(alreadyEnrolled.get(targetId));
+            } else if (fullTargetIds.contains(targetId)) {
+                result.setOutcome(Outcome.COURSE_FULL);
+            } else {
+                // Строку, которую между проверкой и вставкой успел создать параллельный запрос, пропустил ON CONFLICT
+                result.setOutcome(insertedTargetIds.contains(targetId) ? Outcome.ENROLLED : Outcome.ALREADY_ENROLLED);
+                result.setEnrollmentId(createdEnrollments.get(targetId));
+            }
+
+            if (result.getOutcome() == Outcome.ENROLLED) {
+                response.setEnrolled(response.getEnrolled() + 1);
+            } else {
+                response.setSkipped(response.getSkipped() + 1);
+            }
+            response.getResults().add(result);
+        }
+
+        log.info("Bulk enrollment for {} {}: {} enrolled, {} skipped", byCourse ? "course" : "student", anchorId,
+                response.getEnrolled(), response.getSkipped());
+        return response;
+    }
+
+    // Занимает места до вставки и возвращает цели, для которых мест не хватило
+    private Set<Long> reserveSeatsForBulk(boolean byCourse, Long anchorId, List<Long> newTargetIds) {
+        if (newTargetIds.isEmpty()) {
+            return Set.of();
+        }
+        if (byCourse) {
+            return courseRepository.reserveSeats(anchorId, newTargetIds.size()) == 0
+                    ? new HashSet<>(newTargetIds)
+                    : Set.of();
+        }
+        return newTargetIds.stream()
+                .filter(courseId -> courseRepository.reserveSeats(courseId, 1) == 0)
+                .collect(Collectors.toSet());
+    }
+
+    // Места под строки, которые пропустил ON CONFLICT, возвращаются
+    private void releaseUnusedSeats(boolean byCourse, Long anchorId, List<Long> reservedTargetIds,
+                                    Set<Long> insertedTargetIds) {
+        int unused = reservedTargetIds.size() - insertedTargetIds.size();
+        if (unused == 0) {
+            return;
+        }
+        if (byCourse) {
+            courseRepository.adjustEnrollmentCounters(anchorId, -unused, -unused);
+        } else {
+            reservedTargetIds.stream()
+                    .filter(courseId -> !insertedTargetIds.contains(courseId))
+                    .forEach(courseId -> courseRepository.adjustEnrollmentCounters(courseId, -1, -1));
+        }
+    }
+
+    // id записи по id второй стороны пары (студента при записи на курс, курса при записи студента)
+    private Map<Long, Long> findEnrollmentIds(boolean byCourse, Long anchorId, Collection<Long> targetIds) {
+        List<EnrollmentKeyRow> rows = byCourse
+                ? enrollmentRepository.findKeysByCourseIdAndStudentIds(anchorId, targetIds)
+                : enrollmentRepository.findKeysByStudentIdAndCourseIds(anchorId, targetIds);
+        return rows.stream()
+                .collect(Collectors.toMap(row -> byCourse ? row.studentId() : row.courseId(), EnrollmentKeyRow::id));
+    }
+
+    private Set<Long> insertEnrollments(boolean byCourse, Long anchorId, List<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Set.of();
+        }
+
+        String sql = bulkInsertOnConflict
+                ? BULK_INSERT_SQL + " ON CONFLICT (student_id, course_id) DO NOTHING"
+                : BULK_INSERT_SQL;
+        Timestamp enrollDate = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(sql, targetIds, BULK_INSERT_BATCH_SIZE, (ps, targetId) -> {
+            ps.setLong(1, byCourse ? targetId : anchorId);
+            ps.setLong(2, byCourse ? anchorId : targetId);
+            ps.setTimestamp(3, enrollDate);
+        });
+
+        Set<Long> inserted = new HashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) драйвер возвращает, если не считал строки - вставка прошла
+                if (count != 0) {
+                    inserted.add(targetIds.get(index));
+                }
+                index++;
+            }
+        }
+        return inserted;
+    }
+
     public void unenrollStudent(Long studentId, Long courseId) {
         Enrollment enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found for student " + studentId + " and course " + courseId));
 
         enrollmentRepository.delete(enrollment);
+        courseRepository.adjustEnrollmentCounters(courseId, -1, enrollment.getStatus() == EnrollmentStatus.ACTIVE ? -1 : 0);
+        TransactionHooks.afterCommit(() -> progressBuffer.discard(enrollment.getId()));
+        eventPublisher.publishEvent(new StudentActivityEvent(studentId));
         log.info("Student {} unenrolled from course {}", studentId, courseId);
+        courseWaitlist.promote(courseId);
+    }
+
+    public WaitlistEntryDTO joinWaitlist(Long studentId, Long courseId) {
+        if (!userRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+        if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+            throw new IllegalArgumentException("Student is already enrolled in this course");
+        }
+        if (courseWaitlistRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
+            throw new IllegalArgumentException("Student is already on the waitlist for this course");
+        }
+        // Заодно блокирует строку курса: место, освобождённое параллельно, дождётся этой записи в очереди
+        if (courseRepository.lockIfFull(courseId) == 0) {
+            throw new IllegalStateException("Course " + courseId + " has free seats, enroll directly");
+        }
+
+        CourseWaitlistEntry entry = new CourseWaitlistEntry();
+        entry.setCourseId(courseId);
+        entry.setStudentId(studentId);
+        CourseWaitlistEntry savedEntry = courseWaitlistRepository.save(entry);
+        long position = courseWaitlistRepository.countByCourseIdAndIdLessThan(courseId, savedEntry.getId()) + 1;
+        log.info("Student {} joined the waitlist for course {} at position {}", studentId, courseId, position);
+        return convertToDTO(savedEntry, position);
+    }
+
+    public void leaveWaitlist(Long studentId, Long courseId) {
+        if (courseWaitlistRepository.deleteByCourseIdAndStudentId(courseId, studentId) == 0) {
+            throw new ResourceNotFoundException("Waitlist entry not found for student " + studentId + " and course " + courseId);
+        }
+        log.info("Student {} left the waitlist for course {}", studentId, courseId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getWaitlist(Long courseId) {
+        List<CourseWaitlistEntry> entries = courseWaitlistRepository.findByCourseIdOrderByIdAsc(courseId);
+        List<WaitlistEntryDTO> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(convertToDTO(entries.get(i), i + 1));
+        }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -75,8 +319,14 @@ public class EnrollmentService {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
 
+        int activeDelta = (status == EnrollmentStatus.ACTIVE ? 1 : 0)
+                - (enrollment.getStatus() == EnrollmentStatus.ACTIVE ? 1 : 0);
         enrollment.setStatus(status);
+        if (activeDelta != 0) {
+            courseRepository.adjustEnrollmentCounters(enrollment.getCourse().getId(), 0, activeDelta);
+        }
         Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new StudentActivityEvent(enrollment.getStudent().getId()));
         log.info("Updated enrollment {} status to {}", enrollmentId, status);
         return convertToDTO(updatedEnrollment);
     }
@@ -89,18 +339,37 @@ public class EnrollmentService {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Enrollment not found with id: " + enrollmentId));
 
+        if (progressBuffer.isEnabled()) {
+            // Строка не блокируется и не пишется: значение уйдёт в базу пачкой из буфера
+            progressBuffer.record(enrollmentId, progress);
+            eventPublisher.publishEvent(new StudentActivityEvent(enrollment.getStudent().getId()));
+            log.debug("Buffered enrollment {} progress {}", enrollmentId, progress);
+            return convertToDTO(enrollment);
+        }
+
         enrollment.setProgress(progress);
         Enrollment updatedEnrollment = enrollmentRepository.save(enrollment);
+        eventPublisher.publishEvent(new StudentActivityEvent(enrollment.getStudent().getId()));
         log.info("Updated enrollment {} progress to {}", enrollmentId, progress);
         return convertToDTO(updatedEnrollment);
     }
 
+    private WaitlistEntryDTO convertToDTO(CourseWaitlistEntry entry, long position) {
+        WaitlistEntryDTO dto = new WaitlistEntryDTO();
+        dto.setId(entry.getId());
+        dto.setCourseId(entry.getCourseId());
+        dto.setStudentId(entry.getStudentId());
+        dto.setPosition(position);
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+
     private EnrollmentDTO convertToDTO(Enrollment enrollment) {
         EnrollmentDTO dto = new EnrollmentDTO();
         dto.setId(enrollment.getId());
         dto.setEnrollDate(enrollment.getEnrollDate());
         dto.setStatus(enrollment.getStatus());
-        dto.setProgress(enrollment.getProgress());
+        dto.setProgress(progressBuffer.resolve(enrollment.getId(), enrollment.getProgress()));
         dto.setStudentId(enrollment.getStudent().getId());
         dto.setStudentName(enrollment.getStudent().getName());
         dto.setCourseId(enrollment.getCourse().getId());
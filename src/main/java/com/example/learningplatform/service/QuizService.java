@@ -3,13 +3,29 @@ package com.example.learningplatform.service;
 import com.example.learningplatform.dto.*;
 import com.example.learningplatform.entity.*;
 import com.example.learningplatform.entity.Module;
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
 import com.example.learningplatform.exception.ResourceNotFoundException;
 import com.example.learningplatform.repository.*;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
+import com.example.learningplatform.service.quiz.QuizAnalyticsEngine;
+import com.example.learningplatform.service.quiz.QuizAnswerKey;
+import com.example.learningplatform.service.quiz.QuizAnswerKeyCache;
+import com.example.learningplatform.service.quiz.QuizAttemptRegistry;
+import com.example.learningplatform.service.quiz.QuizChangedEvent;
+import com.example.learningplatform.service.quiz.QuizLeaderboardIndex;
+import com.example.learningplatform.service.quiz.QuizSubmissionPipeline;
+import com.example.learningplatform.service.quiz.QuizVariant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,6 +35,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class QuizService {
 
+    private static final int MAX_LEADERBOARD_SIZE = 100;
+
     private final QuizRepository quizRepository;
     private final QuizSubmissionRepository quizSubmissionRepository;
     private final UserRepository userRepository;
@@ -26,132 +44,306 @@ public class QuizService {
     private final ModuleRepository moduleRepository;
     private final QuestionRepository questionRepository;
     private final AnswerOptionRepository answerOptionRepository;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizAnalyticsEngine quizAnalyticsEngine;
+    private final QuizLeaderboardIndex quizLeaderboardIndex;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAttemptRegistry quizAttemptRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    // Есть только при app.quiz.async-submission.enabled
+    private final ObjectProvider<QuizSubmissionPipeline> quizSubmissionPipeline;
+
+    // Без попытки сдача принимается, пока клиенты не перешли на POST /api/quizzes/{id}/attempts
+    @Value("${app.quiz.attempts.required:false}")
+    private boolean attemptRequired;
+
+    // Запас на сетевую задержку между нажатием «Сдать» и приходом запроса
+    @Value("${app.quiz.attempts.grace:5s}")
+    private Duration attemptGrace;
 
     public QuizDTO createQuiz(CreateQuizRequest request) {
         Course course = courseRepository.findById(request.getCourseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + request.getCourseId()));
 
+        Module module = null;
+        if (request.getModuleId() != null) {
+            module = moduleRepository.findById(request.getModuleId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Module not found with id: " + request.getModuleId()));
+        }
+
+        // Вопросы и варианты сохраняются каскадом и уходят в базу JDBC-пачками при flush
+        Quiz savedQuiz = quizRepository.save(buildQuiz(request, course, module));
+        onQuizChanged(savedQuiz.getId());
+
+        log.info("Created quiz with id: {} and {} questions", savedQuiz.getId(), request.getQuestions().size());
+        return convertToSimpleDTO(savedQuiz);
+    }
+
+    public List<QuizDTO> importQuizzes(List<CreateQuizRequest> requests) {
+        Map<Long, Course> courses = courseRepository.findAllById(requests.stream()
+                        .map(CreateQuizRequest::getCourseId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Course::getId, course -> course));
+
+        Set<Long> moduleIds = requests.stream()
+                .map(CreateQuizRequest::getModuleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Module> modules = moduleIds.isEmpty()
+                ? Map.of()
+                : moduleRepository.findAllById(moduleIds).stream()
+                        .collect(Collectors.toMap(Module::getId, module -> module));
+
+        List<Quiz> quizzes = new ArrayList<>(requests.size());
+        for (CreateQuizRequest request : requests) {
+            Course course = courses.get(request.getCourseId());
+            if (course == null) {
+                throw new ResourceNotFoundException("Course not found with id: " + request.getCourseId());
+            }
+            Module module = null;
+            if (request.getModuleId() != null) {
+                module = modules.get(request.getModuleId());
+                if (module == null) {
+                    throw new ResourceNotFoundException("Module not found with id: " + request.getModuleId());
+                }
+            }
+            quizzes.add(buildQuiz(request, course, module));
+        }
+
+        List<Quiz> savedQuizzes = quizRepository.saveAll(quizzes);
+        savedQuizzes.forEach(quiz -> onQuizChanged(quiz.getId()));
+
+        log.info("Imported {} quizzes with {} questions", savedQuizzes.size(),
+                requests.stream().mapToInt(request -> request.getQuestions().size()).sum());
+        return savedQuizzes.stream()
+                .map(this::convertToSimpleDTO)
+                .collect(Collectors.toList());
+    }
+
+    private Quiz buildQuiz(CreateQuizRequest request, Course course, Module module) {
         Quiz quiz = new Quiz();
         quiz.setTitle(request.getTitle());
         quiz.setDescription(request.getDescription());
         quiz.setTimeLimit(request.getTimeLimit());
+        quiz.setQuestionsPerAttempt(request.getQuestionsPerAttempt());
         quiz.setCourse(course);
-
-        if (request.getModuleId() != null) {
-            Module module = moduleRepository.findById(request.getModuleId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Module not found with id: " + request.getModuleId()));
-            quiz.setModule(module);
-        }
-
-        Quiz savedQuiz = quizRepository.save(quiz);
+        quiz.setModule(module);
 
         for (CreateQuestionRequest questionRequest : request.getQuestions()) {
             Question question = new Question();
-            question.setQuiz(savedQuiz);
+            question.setQuiz(quiz);
             question.setText(questionRequest.getText());
             question.setType(questionRequest.getType());
             question.setPoints(questionRequest.getPoints());
-
-            Question savedQuestion = questionRepository.save(question);
+            quiz.getQuestions().add(question);
 
             for (CreateAnswerOptionRequest optionRequest : questionRequest.getOptions()) {
                 AnswerOption option = new AnswerOption();
-                option.setQuestion(savedQuestion);
+                option.setQuestion(question);
                 option.setText(optionRequest.getText());
                 option.setIsCorrect(optionRequest.getIsCorrect());
-                answerOptionRepository.save(option);
+                question.getOptions().add(option);
             }
         }
-
-        log.info("Created quiz with id: {} and {} questions", savedQuiz.getId(), request.getQuestions().size());
-        return convertToSimpleDTO(savedQuiz);
+        return quiz;
     }
 
     @Transactional(readOnly = true)
     public QuizDetailDTO getQuizWithQuestions(Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
+        Quiz quiz = quizRepository.findByIdWithModuleAndCourse(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with id: " + quizId));
 
-        // Загружаем вопросы отдельно
-        List<Question> questions = questionRepository.findByQuizId(quizId);
+        // Вопросы и варианты - по одному запросу на уровень, независимо от числа вопросов
+        List<Question> questions = questionRepository.findByQuizIdOrderByIdAsc(quizId);
+        Map<Long, List<AnswerOption>> optionsByQuestion = questions.isEmpty()
+                ? Map.of()
+                : answerOptionRepository.findByQuestionIdIn(questions.stream().map(Question::getId).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(option -> option.getQuestion().getId()));
 
-        // Для каждого вопроса загружаем варианты ответов
-        List<QuestionDetailDTO> questionDTOs = new ArrayList<>();
+        List<QuestionDetailDTO> questionDTOs = new ArrayList<>(questions.size());
         for (Question question : questions) {
-            List<AnswerOption> options = answerOptionRepository.findByQuestionId(question.getId());
-            questionDTOs.add(convertToQuestionDetailDTO(question, options));
+            questionDTOs.add(convertToQuestionDetailDTO(question,
+                    optionsByQuestion.getOrDefault(question.getId(), List.of())));
         }
 
         return convertToDetailDTO(quiz, questionDTOs);
     }
 
-    public QuizSubmissionDTO submitQuizWithDetails(Long quizId, Long studentId, Map<Long, List<Long>> answers) {
-        // Проверяем существование теста и студента
+    public QuizAttemptDTO startAttempt(Long quizId, Long studentId) {
         Quiz quiz = quizRepository.findById(quizId)
                 .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with id: " + quizId));
 
+        if (!userRepository.existsById(studentId)) {
+            throw new ResourceNotFoundException("Student not found with id: " + studentId);
+        }
+
+        if (quizSubmissionRepository.existsByStudentIdAndQuizId(studentId, quizId)) {
+            throw new IllegalArgumentException("Student has already taken this quiz");
+        }
+
+        // Повторный старт (перезагрузка страницы) продолжает открытую попытку, а не сбрасывает таймер
+        Optional<QuizAttempt> openAttempt = quizAttemptRepository
+                .findFirstByQuizIdAndStudentIdAndStatus(quizId, studentId, QuizAttemptStatus.IN_PROGRESS);
+        if (openAttempt.isPresent()) {
+            return convertToAttemptDTO(openAttempt.get());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuizId(quizId);
+        attempt.setStudentId(studentId);
+        attempt.setStatus(QuizAttemptStatus.IN_PROGRESS);
+        attempt.setStartedAt(now);
+        attempt.setExpiresAt(quiz.getTimeLimit() > 0 ? now.plusSeconds(quiz.getTimeLimit()) : null);
+
+        QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        quizAttemptRegistry.register(savedAttempt);
+        log.info("Student {} started attempt {} on quiz {}", studentId, savedAttempt.getId(), quizId);
+
+        return convertToAttemptDTO(savedAttempt);
+    }
+
+    public QuizSubmissionDTO submitQuizWithDetails(Long quizId, Long studentId, Map<Long, List<Long>> answers) {
+        return submitQuizWithDetails(quizId, studentId, null, answers);
+    }
+
+    public QuizSubmissionDTO submitQuizWithDetails(Long quizId, Long studentId, Long attemptId,
+                                                   Map<Long, List<Long>> answers) {
+        // Ключ ответов из кэша: заодно проверяет существование теста
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+
         User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
 
-
-        if (quizSubmissionRepository.findByStudentIdAndQuizId(studentId, quizId).isPresent()) {
+        if (quizSubmissionRepository.existsByStudentIdAndQuizId(studentId, quizId)) {
             throw new IllegalArgumentException("Student has already taken this quiz");
         }
 
-        List<Question> questions = questionRepository.findByQuizId(quizId);
-        Map<Long, Question> questionMap = new HashMap<>();
-        Map<Long, List<AnswerOption>> questionOptionsMap = new HashMap<>();
+        // В тесте с банком вопросов студент отвечает только на вопросы своего варианта
+        if (answerKey.isPooled()) {
+            QuizVariant.generate(answerKey, studentId).rejectQuestionsOutside(answerKey, answers);
+        }
+        answerKey.rejectForeignOptions(answers);
 
-        for (Question question : questions) {
-            questionMap.put(question.getId(), question);
-            List<AnswerOption> options = answerOptionRepository.findByQuestionId(question.getId());
-            questionOptionsMap.put(question.getId(), options);
+        if (attemptId != null) {
+            finishAttempt(attemptId, quizId, studentId);
+        } else if (attemptRequired) {
+            throw new IllegalArgumentException("Quiz submission requires an attempt, start one first");
         }
 
-        int score = calculateScore(questionMap, questionOptionsMap, answers);
+        // Разделяемая блокировка теста до вставки: параллельное удаление дождётся коммита и увидит сдачу
+        if (quizRepository.lockIdsForSubmission(List.of(quizId)).isEmpty()) {
+            throw new ResourceNotFoundException("Quiz not found with id: " + quizId);
+        }
+
+        int score = calculateScore(answerKey, answers);
+        byte[] answerMasks = answerKey.packSelections(answers);
 
         QuizSubmission submission = new QuizSubmission();
-        submission.setQuiz(quiz);
+        submission.setQuiz(quizRepository.getReferenceById(quizId));
         submission.setStudent(student);
         submission.setScore(score);
+        submission.setAnswerMasks(answerMasks);
 
         QuizSubmission savedSubmission = quizSubmissionRepository.save(submission);
+        quizAnalyticsEngine.recordSubmission(quizId, studentId, score, answerMasks);
+        quizLeaderboardIndex.recordSubmission(quizId, studentId, student.getName(), score, savedSubmission.getTakenAt());
+        eventPublisher.publishEvent(new StudentActivityEvent(studentId));
         log.info("Student {} submitted quiz {} with score {}", studentId, quizId, score);
 
-        return convertToSubmissionDTO(savedSubmission);
+        return convertToSubmissionDTO(savedSubmission, answerKey.getQuizTitle());
     }
 
-    private int calculateScore(Map<Long, Question> questionMap,
-                               Map<Long, List<AnswerOption>> questionOptionsMap,
-                               Map<Long, List<Long>> answers) {
-        int score = 0;
+    /**
+     * Асинхронная сдача: попытка закрывается здесь же, в транзакции запроса, и только потом ответ встаёт
+     * в очередь. Если очередь ответ не приняла, транзакция откатывается и попытка остаётся открытой.
+     */
+    public SubmissionTicketDTO submitQuizAsync(Long quizId, Long studentId, Long attemptId,
+                                               Map<Long, List<Long>> answers) {
+        QuizSubmissionPipeline pipeline = quizSubmissionPipeline.getIfAvailable();
+        if (pipeline == null) {
+            throw new IllegalStateException("Async quiz submission is disabled");
+        }
 
-        for (Map.Entry<Long, List<Long>> entry : answers.entrySet()) {
-            Long questionId = entry.getKey();
-            List<Long> selectedOptionIds = entry.getValue();
+        if (attemptId != null) {
+            finishAttempt(attemptId, quizId, studentId);
+        } else if (attemptRequired) {
+            throw new IllegalArgumentException("Quiz submission requires an attempt, start one first");
+        }
+        return pipeline.enqueue(quizId, studentId, answers);
+    }
 
-            Question question = questionMap.get(questionId);
-            List<AnswerOption> options = questionOptionsMap.get(questionId);
+    /**
+     * Сдача по позициям варианта студента (см. QuizPayloadCache.getVariant): позиции переводятся
+     * в id вопросов и вариантов по тому же детерминированному варианту, без обращения к базе.
+     */
+    public QuizSubmissionDTO submitQuizVariant(Long quizId, Long studentId, Long attemptId,
+                                               Map<Integer, List<Integer>> positionalAnswers) {
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+        QuizVariant variant = QuizVariant.generate(answerKey, studentId);
+        return submitQuizWithDetails(quizId, studentId, attemptId, variant.toAnswers(answerKey, positionalAnswers));
+    }
 
-            if (question != null && options != null) {
-                boolean isCorrect = isAnswerCorrect(question, options, selectedOptionIds);
-                if (isCorrect) {
-                    score += question.getPoints();
-                }
+    private void finishAttempt(Long attemptId, Long quizId, Long studentId) {
+        // Открытая попытка обычно в памяти; в базу идём, только если её там нет
+        QuizAttemptRegistry.OpenAttempt openAttempt = quizAttemptRegistry.get(attemptId);
+        Long attemptQuizId;
+        Long attemptStudentId;
+        LocalDateTime expiresAt;
+        if (openAttempt != null) {
+            attemptQuizId = openAttempt.quizId();
+            attemptStudentId = openAttempt.studentId();
+            expiresAt = openAttempt.expiresAt();
+        } else {
+            QuizAttempt attempt = quizAttemptRepository.findById(attemptId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Quiz attempt not found with id: " + attemptId));
+            if (attempt.getStatus() != QuizAttemptStatus.IN_PROGRESS) {
+                throw new IllegalStateException("Quiz attempt " + attemptId + " is already " + attempt.getStatus());
             }
+            attemptQuizId = attempt.getQuizId();
+            attemptStudentId = attempt.getStudentId();
+            expiresAt = attempt.getExpiresAt();
+        }
+
+        if (!attemptQuizId.equals(quizId) || !attemptStudentId.equals(studentId)) {
+            throw new IllegalArgumentException("Quiz attempt " + attemptId + " does not belong to this student and quiz");
         }
 
-        return score;
+        LocalDateTime now = LocalDateTime.now();
+        if (expiresAt != null && now.isAfter(expiresAt.plus(attemptGrace))) {
+            throw new IllegalStateException("Time limit of quiz attempt " + attemptId + " has expired");
+        }
+
+        // Условное обновление: если колесо успело закрыть попытку, сдача откатывается
+        if (quizAttemptRepository.finish(attemptId, QuizAttemptStatus.SUBMITTED, now) == 0) {
+            throw new IllegalStateException("Quiz attempt " + attemptId + " is no longer in progress");
+        }
+        quizAttemptRegistry.complete(attemptId);
     }
 
-    private boolean isAnswerCorrect(Question question, List<AnswerOption> options, List<Long> selectedOptionIds) {
-        List<Long> correctOptionIds = options.stream()
-                .filter(AnswerOption::getIsCorrect)
-                .map(AnswerOption::getId)
-                .toList();
+    private int calculateScore(QuizAnswerKey answerKey, Map<Long, List<Long>> answers) {
+        return answerKey.score(answers);
+    }
 
-        return new HashSet<>(selectedOptionIds).containsAll(correctOptionIds) &&
-                new HashSet<>(correctOptionIds).containsAll(selectedOptionIds);
+    // Отчёт берётся из накопленных сумм: своя транзакция не нужна, первую загрузку выполняет репозиторий
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public QuizAnalyticsDTO getQuizAnalytics(Long quizId) {
+        return quizAnalyticsEngine.getAnalytics(quizId);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<LeaderboardEntryDTO> getLeaderboard(Long quizId, int top) {
+        if (top < 1 || top > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("top must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        return quizLeaderboardIndex.top(quizId, top);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public StudentRankDTO getStudentRank(Long quizId, Long studentId) {
+        return quizLeaderboardIndex.rank(quizId, studentId);
     }
 
     @Transactional(readOnly = true)
@@ -163,7 +355,7 @@ public class QuizService {
 
     @Transactional(readOnly = true)
     public List<QuizSubmissionDTO> getQuizSubmissionsByStudent(Long studentId) {
-        return quizSubmissionRepository.findByStudentId(studentId).stream()
+        return quizSubmissionRepository.findByStudentIdWithQuiz(studentId).stream()
                 .map(this::convertToSubmissionDTO)
                 .collect(Collectors.toList());
     }
@@ -176,30 +368,61 @@ public class QuizService {
     }
 
     public void deleteQuiz(Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
-                .orElseThrow(() -> new ResourceNotFoundException("Quiz not found with id: " + quizId));
-
+        // Блокировка строки теста до проверки: сдача, ждущая её, после удаления получит 404,
+        // а закоммиченную раньше увидит проверка ниже
+        if (quizRepository.lockIdForDelete(quizId).isEmpty()) {
+            throw new ResourceNotFoundException("Quiz not found with id: " + quizId);
+        }
 
-        if (!quizSubmissionRepository.findByQuizId(quizId).isEmpty()) {
+        if (quizSubmissionRepository.existsByQuizId(quizId)) {
             throw new IllegalStateException("Cannot delete quiz that has submissions");
         }
 
-        List<Question> questions = questionRepository.findByQuizId(quizId);
-        for (Question question : questions) {
-            answerOptionRepository.deleteByQuestionId(question.getId());
-        }
+        // Три массовых удаления независимо от числа вопросов и вариантов
+        answerOptionRepository.deleteByQuizId(quizId);
         questionRepository.deleteByQuizId(quizId);
-        quizRepository.delete(quiz);
+        quizRepository.deleteQuizById(quizId);
+        onQuizChanged(quizId);
 
         log.info("Deleted quiz with id: {}", quizId);
     }
 
+    public int deleteQuizzesByCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+
+        // Как в deleteQuiz: сначала блокируем тесты курса, потом проверяем сдачи
+        List<Long> quizIds = quizRepository.lockIdsForDeleteByCourseId(courseId);
+        if (quizIds.isEmpty()) {
+            return 0;
+        }
+
+        if (quizSubmissionRepository.existsByQuizCourseId(courseId)) {
+            throw new IllegalStateException("Cannot delete quizzes that have submissions");
+        }
+
+        answerOptionRepository.deleteByCourseId(courseId);
+        questionRepository.deleteByCourseId(courseId);
+        quizRepository.deleteByCourseId(courseId);
+        quizIds.forEach(this::onQuizChanged);
+
+        log.info("Deleted {} quizzes of course {}", quizIds.size(), courseId);
+        return quizIds.size();
+    }
+
+    private void onQuizChanged(Long quizId) {
+        quizAnswerKeyCache.invalidate(quizId);
+        eventPublisher.publishEvent(new QuizChangedEvent(quizId));
+    }
+
     private QuizDTO convertToSimpleDTO(Quiz quiz) {
         QuizDTO dto = new QuizDTO();
         dto.setId(quiz.getId());
         dto.setTitle(quiz.getTitle());
         dto.setDescription(quiz.getDescription());
         dto.setTimeLimit(quiz.getTimeLimit());
+        dto.setQuestionsPerAttempt(quiz.getQuestionsPerAttempt());
 
         if (quiz.getModule() != null) {
             dto.setModuleId(quiz.getModule().getId());
@@ -220,6 +443,7 @@ public class QuizService {
         dto.setTitle(quiz.getTitle());
         dto.setDescription(quiz.getDescription());
         dto.setTimeLimit(quiz.getTimeLimit());
+        dto.setQuestionsPerAttempt(quiz.getQuestionsPerAttempt());
 
         if (quiz.getModule() != null) {
             dto.setModuleId(quiz.getModule().getId());
@@ -255,13 +479,28 @@ public class QuizService {
         return dto;
     }
 
+    private QuizAttemptDTO convertToAttemptDTO(QuizAttempt attempt) {
+        QuizAttemptDTO dto = new QuizAttemptDTO();
+        dto.setId(attempt.getId());
+        dto.setQuizId(attempt.getQuizId());
+        dto.setStudentId(attempt.getStudentId());
+        dto.setStatus(attempt.getStatus());
+        dto.setStartedAt(attempt.getStartedAt());
+        dto.setExpiresAt(attempt.getExpiresAt());
+        return dto;
+    }
+
     private QuizSubmissionDTO convertToSubmissionDTO(QuizSubmission submission) {
+        return convertToSubmissionDTO(submission, submission.getQuiz().getTitle());
+    }
+
+    private QuizSubmissionDTO convertToSubmissionDTO(QuizSubmission submission, String quizTitle) {
         QuizSubmissionDTO dto = new QuizSubmissionDTO();
         dto.setId(submission.getId());
         dto.setScore(submission.getScore());
         dto.setTakenAt(submission.getTakenAt());
         dto.setQuizId(submission.getQuiz().getId());
-        dto.setQuizTitle(submission.getQuiz().getTitle());
+        dto.setQuizTitle(quizTitle);
         dto.setStudentId(submission.getStudent().getId());
         dto.setStudentName(submission.getStudent().getName());
         return dto;
@@ -275,12 +514,16 @@ public class QuizService {
     }
 
     public QuizSubmissionDTO submitQuiz(Long quizId, Long studentId, Map<Long, Long> answers) {
+        return submitQuiz(quizId, studentId, null, answers);
+    }
+
+    public QuizSubmissionDTO submitQuiz(Long quizId, Long studentId, Long attemptId, Map<Long, Long> answers) {
 
         Map<Long, List<Long>> convertedAnswers = new HashMap<>();
         for (Map.Entry<Long, Long> entry : answers.entrySet()) {
             convertedAnswers.put(entry.getKey(), List.of(entry.getValue()));
         }
 
-        return submitQuizWithDetails(quizId, studentId, convertedAnswers);
+        return submitQuizWithDetails(quizId, studentId, attemptId, convertedAnswers);
     }
 }
\ No newline at end of file
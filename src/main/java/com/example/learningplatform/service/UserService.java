@@ -4,9 +4,12 @@ import com.example.learningplatform.dto.UserDTO;
 import com.example.learningplatform.entity.User;
 import com.example.learningplatform.entity.enums.UserRole;
 import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
 import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +23,8 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserDTO createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
@@ -70,7 +75,14 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        // Страницу самого пользователя удалит каскад, а курсы преподавателя уходят вместе с записями,
+        // сдачами и отзывами других студентов - их страницы нужно пересобрать
+        List<Long> taughtCourseIds = courseRepository.findIdsByTeacherId(id);
+        List<Long> affectedStudentIds = taughtCourseIds.isEmpty()
+                ? List.of()
+                : userRepository.findStudentIdsWithActivityInCourses(taughtCourseIds);
         userRepository.deleteById(id);
+        affectedStudentIds.forEach(studentId -> eventPublisher.publishEvent(new StudentActivityEvent(studentId)));
         log.info("Deleted user with id: {}", id);
     }
 
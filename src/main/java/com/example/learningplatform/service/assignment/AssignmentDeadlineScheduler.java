@@ -0,0 +1,267 @@
+package com.example.learningplatform.service.assignment;
+
+import com.example.learningplatform.repository.AssignmentRepository;
+import com.example.learningplatform.repository.projection.AssignmentDeadlineRow;
+import com.example.learningplatform.service.support.HashedTimingWheel;
+import com.example.learningplatform.service.support.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Напоминания и автоматическое закрытие заданий по сроку сдачи (включается app.assignments.deadlines.enabled).
+ * <p>
+ * Сроки подгружаются окнами: при старте - все открытые задания со сроком до горизонта, затем раз в
+ * load-interval - только полоса между прошлым и новым горизонтом (now + window + remind-before), обе выборки
+ * идут по частичному индексу открытых заданий на due_date. Подгруженные сроки ждут в таймерном колесе;
+ * сработавшие за тик напоминания и закрытия пишутся одним JDBC batch условных UPDATE, поэтому повторная
+ * постановка (новое задание попало и в окно, и в {@link #track}) безвредна. Задание с прошедшим сроком
+ * без напоминания сразу закрывается. Новый горизонт публикуется до выборки, поэтому задание, закоммиченное
+ * во время загрузки, не теряется между выборкой и {@link #track}.
+ */
+@Slf4j
+@Component
+public class AssignmentDeadlineScheduler {
+
+    private static final String REMIND_SQL =
+            "UPDATE assignments SET reminder_sent_at = ? WHERE id = ? AND reminder_sent_at IS NULL AND closed_at IS NULL";
+
+    private static final String CLOSE_SQL =
+            "UPDATE assignments SET closed_at = ? WHERE id = ? AND closed_at IS NULL";
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final AssignmentRepository assignmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration loadInterval;
+    private final Duration remindBefore;
+    private final HashedTimingWheel<Deadline> wheel;
+
+    // Поставленные в колесо задания и их срок - чтобы не ставить одно и то же дважды
+    private final Map<Long, LocalDateTime> tracked = new ConcurrentHashMap<>();
+    // Сроки до этого момента уже в колесе; null - первая загрузка ещё не прошла
+    private volatile LocalDateTime loadedUntil;
+    private ScheduledExecutorService loader;
+
+    public AssignmentDeadlineScheduler(AssignmentRepository assignmentRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${app.assignments.deadlines.enabled:true}") boolean enabled,
+                                       @Value("${app.assignments.deadlines.window:1h}") Duration window,
+                                       @Value("${app.assignments.deadlines.load-interval:10m}") Duration loadInterval,
+                                       @Value("${app.assignments.deadlines.remind-before:24h}") Duration remindBefore,
+                                       @Value("${app.assignments.deadlines.tick:1s}") Duration tick,
+                                       @Value("${app.assignments.deadlines.wheel-size:512}") int wheelSize) {
+        if (loadInterval.compareTo(window) > 0) {
+            throw new IllegalArgumentException("Deadline load interval must not exceed the window");
+        }
+        this.assignmentRepository = assignmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.window = window;
+        this.loadInterval = loadInterval;
+        this.remindBefore = remindBefore;
+        this.wheel = new HashedTimingWheel<>("assignment-deadlines", tick, wheelSize, this::fire);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        int loaded = loadWindow();
+        wheel.start();
+        loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "assignment-deadline-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = loadInterval.toMillis();
+        loader.scheduleWithFixedDelay(this::loadQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Assignment deadline scheduler started with {} deadlines", loaded);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (loader != null) {
+            loader.shutdownNow();
+        }
+        wheel.stop();
+    }
+
+    /**
+     * Подгружает сроки до нового горизонта и возвращает число поставленных в колесо заданий.
+     */
+    public synchronized int loadWindow() {
+        LocalDateTime from = loadedUntil;
+        LocalDateTime horizon = LocalDateTime.now().plus(window).plus(remindBefore);
+        // Горизонт публикуется до выборки: задание, закоммиченное после неё, уже поставит track, а
+        // закоммиченное раньше попадёт в выборку; попавшее в оба места отсеет tracked
+        loadedUntil = horizon;
+        List<AssignmentDeadlineRow> rows;
+        try {
+            rows = from == null
+                    ? assignmentRepository.findOpenDeadlinesUntil(horizon)
+                    : assignmentRepository.findOpenDeadlinesBetween(from, horizon);
+        } catch (RuntimeException e) {
+            // Полоса не загружена - следующая попытка повторит её целиком
+            loadedUntil = from;
+            throw e;
+        }
+        int scheduled = 0;
+        for (AssignmentDeadlineRow row : rows) {
+            if (schedule(row.id(), row.dueDate(), row.reminderSentAt() == null)) {
+                scheduled++;
+            }
+        }
+        log.debug("Loaded {} assignment deadlines until {}", scheduled, horizon);
+        return scheduled;
+    }
+
+    /**
+     * Ставит срок нового задания после коммита, если он уже внутри загруженного окна; иначе его подберёт
+     * следующая загрузка.
+     */
+    public void track(Long assignmentId, LocalDateTime dueDate) {
+        if (!enabled || dueDate == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            LocalDateTime until = loadedUntil;
+            if (until != null && !dueDate.isAfter(until)) {
+                schedule(assignmentId, dueDate, true);
+            }
+        });
+    }
+
+    public int getTrackedCount() {
+        return tracked.size();
+    }
+
+    private boolean schedule(Long assignmentId, LocalDateTime dueDate, boolean remind) {
+        if (tracked.putIfAbsent(assignmentId, dueDate) != null) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (remind && dueDate.isAfter(now)) {
+            wheel.schedule(new Deadline(assignmentId, Action.REMIND), toInstant(dueDate.minus(remindBefore)));
+        }
+        wheel.schedule(new Deadline(assignmentId, Action.CLOSE), toInstant(dueDate));
+        return true;
+    }
+
+    // Вызывается нитью колеса
+    private void fire(List<Deadline> deadlines) {
+        List<Long> reminders = new ArrayList<>();
+        List<Long> closures = new ArrayList<>();
+        for (Deadline deadline : deadlines) {
+            (deadline.action() == Action.REMIND ? reminders : closures).add(deadline.assignmentId());
+        }
+        if (!reminders.isEmpty()) {
+            remind(reminders);
+        }
+        if (!closures.isEmpty()) {
+            close(closures);
+        }
+    }
+
+    private void remind(List<Long> assignmentIds) {
+        List<Long> reminded;
+        try {
+            reminded = updateEach(REMIND_SQL, assignmentIds);
+        } catch (DataAccessException e) {
+            log.warn("Failed to send {} assignment reminders, retrying in {}", assignmentIds.size(), RETRY_DELAY, e);
+            retry(assignmentIds, Action.REMIND);
+            return;
+        }
+        for (Long assignmentId : reminded) {
+            List<Long> studentIds = assignmentRepository.findPendingStudentIds(assignmentId);
+            eventPublisher.publishEvent(new AssignmentReminderEvent(assignmentId, tracked.get(assignmentId), studentIds));
+            log.info("Assignment {} is due soon, reminding {} students", assignmentId, studentIds.size());
+        }
+    }
+
+    private void close(List<Long> assignmentIds) {
+        List<Long> closed;
+        try {
+            closed = updateEach(CLOSE_SQL, assignmentIds);
+        } catch (DataAccessException e) {
+            // Пока строка не закрыта, задание принимает решения - закрыть нужно обязательно
+            log.warn("Failed to close {} overdue assignments, retrying in {}", assignmentIds.size(), RETRY_DELAY, e);
+            retry(assignmentIds, Action.CLOSE);
+            return;
+        }
+        assignmentIds.forEach(tracked::remove);
+        if (!closed.isEmpty()) {
+            log.info("Closed {} overdue assignments", closed.size());
+        }
+    }
+
+    // Условный UPDATE пачкой; возвращает id, строки которых действительно изменились
+    private List<Long> updateEach(String sql, List<Long> assignmentIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(sql, assignmentIds, assignmentIds.size(), (ps, assignmentId) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, assignmentId);
+        });
+        List<Long> updated = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    updated.add(assignmentIds.get(index));
+                }
+                index++;
+            }
+        }
+        return updated;
+    }
+
+    private void retry(List<Long> assignmentIds, Action action) {
+        Instant retryAt = Instant.now().plus(RETRY_DELAY);
+        assignmentIds.forEach(assignmentId -> wheel.schedule(new Deadline(assignmentId, action), retryAt));
+    }
+
+    private void loadQuietly() {
+        try {
+            loadWindow();
+        } catch (DataAccessException e) {
+            log.warn("Failed to load assignment deadlines, will retry in {}", loadInterval, e);
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private enum Action {
+        REMIND,
+        CLOSE
+    }
+
+    private record Deadline(Long assignmentId, Action action) {
+    }
+}
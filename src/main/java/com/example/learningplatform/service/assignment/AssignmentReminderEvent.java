@@ -0,0 +1,11 @@
+package com.example.learningplatform.service.assignment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Публикуется {@link AssignmentDeadlineScheduler} за app.assignments.deadlines.remind-before до срока
+ * задания: studentIds - студенты курса, которые ещё не сдали решение. Точка подключения уведомлений.
+ */
+public record AssignmentReminderEvent(Long assignmentId, LocalDateTime dueDate, List<Long> studentIds) {
+}
@@ -0,0 +1,145 @@
+package com.example.learningplatform.service.assignment;
+
+import com.example.learningplatform.entity.SubmissionContent;
+import com.example.learningplatform.entity.enums.ContentEncoding;
+import com.example.learningplatform.repository.SubmissionContentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Хранилище текстов решений вне строки submissions.
+ * <p>
+ * Текст адресуется SHA-256 от UTF-8 байтов, поэтому одинаковые решения (копии, шаблонные заготовки)
+ * хранятся один раз, а строка однажды записанного текста больше не меняется. Тексты от min-compress-size
+ * сжимаются Deflate; если сжатие не дало выигрыша, байты хранятся как есть. Решение ссылается на текст
+ * хешем и держит исходный размер, так что списки решений до тела не дотрагиваются.
+ */
+@Slf4j
+@Component
+public class SubmissionContentStore {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO submission_contents (hash, encoding, original_size, data, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SubmissionContentRepository submissionContentRepository;
+    private final boolean insertOnConflict;
+    private final int compressionLevel;
+    private final int minCompressSize;
+
+    public SubmissionContentStore(JdbcTemplate jdbcTemplate,
+                                  SubmissionContentRepository submissionContentRepository,
+                                  @Value("${app.submissions.content-store.insert-on-conflict:true}") boolean insertOnConflict,
+                                  @Value("${app.submissions.content-store.compression-level:6}") int compressionLevel,
+                                  @Value("${app.submissions.content-store.min-compress-size:256}") int minCompressSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.submissionContentRepository = submissionContentRepository;
+        this.insertOnConflict = insertOnConflict;
+        this.compressionLevel = compressionLevel;
+        this.minCompressSize = minCompressSize;
+    }
+
+    /**
+     * Сохраняет текст, если такого ещё нет, и возвращает ссылку на него. Вызывается в транзакции решения.
+     */
+    public StoredContent store(String content) {
+        byte[] original = content.getBytes(StandardCharsets.UTF_8);
+        if (original.length > SubmissionContent.MAX_STORED_BYTES) {
+            throw new IllegalArgumentException("Submission content must not exceed "
+                    + SubmissionContent.MAX_STORED_BYTES + " bytes");
+        }
+        String hash = sha256(original);
+
+        // Postgres: параллельная запись того же текста не роняет транзакцию на первичном ключе
+        if (insertOnConflict || !submissionContentRepository.existsById(hash)) {
+            byte[] compressed = original.length >= minCompressSize ? deflate(original) : null;
+            boolean useCompressed = compressed != null && compressed.length < original.length;
+            int inserted = jdbcTemplate.update(insertOnConflict ? INSERT_SQL + " ON CONFLICT (hash) DO NOTHING" : INSERT_SQL,
+                    hash,
+                    (useCompressed ? ContentEncoding.DEFLATE : ContentEncoding.IDENTITY).name(),
+                    original.length,
+                    useCompressed ? compressed : original,
+                    Timestamp.valueOf(LocalDateTime.now()));
+            if (inserted > 0) {
+                log.debug("Stored submission content {}: {} bytes as {}", hash, original.length,
+                        useCompressed ? compressed.length + " compressed" : "is");
+            }
+        }
+        return new StoredContent(hash, original.length);
+    }
+
+    public String load(String hash) {
+        SubmissionContent content = submissionContentRepository.findById(hash)
+                .orElseThrow(() -> new IllegalStateException("Submission content is missing: " + hash));
+        byte[] original = content.getEncoding() == ContentEncoding.DEFLATE
+                ? inflate(content.getData(), content.getOriginalSize())
+                : content.getData();
+        return new String(original, StandardCharsets.UTF_8);
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Исходный размер известен, поэтому распаковка идёт сразу в буфер нужной длины
+    private static byte[] inflate(byte[] input, int originalSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            byte[] output = new byte[originalSize];
+            int length = 0;
+            while (length < originalSize && !inflater.finished()) {
+                int read = inflater.inflate(output, length, originalSize - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != originalSize) {
+                throw new IllegalStateException("Corrupted submission content: expected " + originalSize
+                        + " bytes, got " + length);
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted submission content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String sha256(byte[] input) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(input));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record StoredContent(String hash, int size) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.learningplatform.service.course;
+
+import com.example.learningplatform.repository.CourseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сверка денормализованных счётчиков courses (enrolled_count, active_count, rating_sum, rating_count)
+ * с фактическими записями и отзывами.
+ * <p>
+ * Сервисы меняют счётчики в той же транзакции, что и сами строки, но вставки в обход сервисов
+ * (миграции, ручные правки) могут их рассинхронизировать. Сверка находит расхождения одним запросом
+ * и пересчитывает только разошедшиеся курсы пачками, каждая в своей транзакции: строки пачки сначала
+ * блокируются, и только потом отдельный запрос считает фактические значения.
+ * Фоновый запуск - раз в app.course-counters.reconcile-interval (0 - выключен).
+ */
+@Slf4j
+@Component
+public class CourseCounterReconciler {
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration interval;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public CourseCounterReconciler(CourseRepository courseRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.course-counters.reconcile-interval:6h}") Duration interval,
+                                   @Value("${app.course-counters.batch-size:500}") int batchSize) {
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interval = interval;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (interval.isZero() || interval.isNegative()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-counter-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Пересчитывает разошедшиеся счётчики и возвращает число исправленных курсов.
+     */
+    public int reconcile() {
+        List<Long> driftedIds = courseRepository.findIdsWithDriftedCounters();
+        if (driftedIds.isEmpty()) {
+            return 0;
+        }
+
+        int repaired = 0;
+        for (int from = 0; from < driftedIds.size(); from += batchSize) {
+            List<Long> chunk = driftedIds.subList(from, Math.min(from + batchSize, driftedIds.size()));
+            Integer updated = transactionTemplate.execute(status -> {
+                // Иначе UPDATE, дождавшись блокировки параллельной записи, запишет COUNT из старого снимка
+                // и затрёт её инкремент - а по enrolled_count проверяется лимит мест
+                courseRepository.lockIds(chunk);
+                return courseRepository.recomputeCounters(chunk);
+            });
+            repaired += updated != null ? updated : 0;
+        }
+        log.warn("Repaired drifted counters for {} courses", repaired);
+        return repaired;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (DataAccessException e) {
+            log.warn("Course counter reconciliation failed, will retry in {}", interval, e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.learningplatform.service.dashboard;
+
+/**
+ * Публикуется сервисами при изменении всего, что видно на странице студента: записей на курсы,
+ * сдач тестов и заданий, отзывов.
+ */
+public record StudentActivityEvent(Long studentId) {
+}
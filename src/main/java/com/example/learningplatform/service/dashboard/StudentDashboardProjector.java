@@ -0,0 +1,247 @@
+package com.example.learningplatform.service.dashboard;
+
+import com.example.learningplatform.dto.StudentDashboardDTO;
+import com.example.learningplatform.entity.StudentDashboard;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.StudentDashboardRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.AssignmentService;
+import com.example.learningplatform.service.CourseReviewService;
+import com.example.learningplatform.service.EnrollmentService;
+import com.example.learningplatform.service.QuizService;
+import com.example.learningplatform.service.support.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-модель страницы студента: по строке student_dashboards на студента с готовым JSON.
+ * <p>
+ * Сервисы публикуют {@link StudentActivityEvent}; после коммита студент помечается как устаревший,
+ * а фоновый поток раз в app.dashboard.refresh-interval пересобирает помеченных - частые события
+ * одного студента (прогресс по урокам) сливаются в одну пересборку. Чтение - одна выборка по первичному
+ * ключу без маппинга; если студент помечен или строки ещё нет, страница пересобирается сразу, так что
+ * студент видит свои изменения. Пересборки одного студента идут по очереди (полосатые блокировки),
+ * поэтому более старый снимок не перезапишет более новый. Названия курсов, тестов и заданий хранятся
+ * копией и обновляются при следующей активности студента или полной пересборке.
+ */
+@Slf4j
+@Component
+public class StudentDashboardProjector {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final EnrollmentService enrollmentService;
+    private final QuizService quizService;
+    private final AssignmentService assignmentService;
+    private final CourseReviewService courseReviewService;
+    private final UserRepository userRepository;
+    private final StudentDashboardRepository studentDashboardRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration refreshInterval;
+
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private ScheduledExecutorService refresher;
+
+    public StudentDashboardProjector(EnrollmentService enrollmentService,
+                                     QuizService quizService,
+                                     AssignmentService assignmentService,
+                                     CourseReviewService courseReviewService,
+                                     UserRepository userRepository,
+                                     StudentDashboardRepository studentDashboardRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.dashboard.refresh-interval:1s}") Duration refreshInterval) {
+        this.enrollmentService = enrollmentService;
+        this.quizService = quizService;
+        this.assignmentService = assignmentService;
+        this.courseReviewService = courseReviewService;
+        this.userRepository = userRepository;
+        this.studentDashboardRepository = studentDashboardRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.refreshInterval = refreshInterval;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-dashboard-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (refresher != null) {
+            refresher.shutdown();
+            refresher.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @EventListener
+    public void onStudentActivity(StudentActivityEvent event) {
+        TransactionHooks.afterCommit(() -> stale.add(event.studentId()));
+    }
+
+    /**
+     * JSON страницы студента.
+     */
+    public String getDashboard(Long studentId) {
+        if (!stale.remove(studentId)) {
+            Optional<StudentDashboard> dashboard = studentDashboardRepository.findById(studentId);
+            if (dashboard.isPresent()) {
+                return dashboard.get().getPayload();
+            }
+        }
+        return rebuild(studentId);
+    }
+
+    /**
+     * Пересобирает страницу студента из сервисов и возвращает её JSON.
+     */
+    public String rebuild(Long studentId) {
+        synchronized (locks[(int) Math.floorMod(studentId, (long) LOCK_STRIPES)]) {
+            try {
+                try {
+                    return transactionTemplate.execute(status -> store(studentId));
+                } catch (DataIntegrityViolationException e) {
+                    // Строку первым вставил другой узел - теперь это обновление
+                    return transactionTemplate.execute(status -> store(studentId));
+                }
+            } catch (DataAccessException e) {
+                // Пометка не теряется: страницу пересоберёт следующий проход
+                stale.add(studentId);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Пересобирает страницы всех студентов и возвращает их число.
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> studentIds = userRepository.findIdsByRoleAfter(UserRole.STUDENT, afterId, Limit.of(REBUILD_PAGE_SIZE));
+            for (Long studentId : studentIds) {
+                stale.remove(studentId);
+                rebuild(studentId);
+            }
+            rebuilt += studentIds.size();
+            if (studentIds.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            afterId = studentIds.get(studentIds.size() - 1);
+        }
+        log.info("Rebuilt {} student dashboards", rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Пересобирает страницы помеченных студентов и возвращает их число.
+     */
+    public int refreshStale() {
+        List<Long> studentIds = new ArrayList<>(stale);
+        int refreshed = 0;
+        for (Long studentId : studentIds) {
+            if (stale.remove(studentId)) {
+                try {
+                    rebuild(studentId);
+                    refreshed++;
+                } catch (ResourceNotFoundException e) {
+                    // Студента удалили - страницу удалит каскад
+                }
+            }
+        }
+        return refreshed;
+    }
+
+    public boolean isStale(Long studentId) {
+        return stale.contains(studentId);
+    }
+
+    private String store(Long studentId) {
+        StudentDashboardDTO dashboard = build(studentId);
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(dashboard);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize dashboard of student " + studentId, e);
+        }
+
+        StudentDashboard row = studentDashboardRepository.findById(studentId).orElseGet(() -> {
+            StudentDashboard created = new StudentDashboard();
+            created.setStudentId(studentId);
+            return created;
+        });
+        row.setPayload(payload);
+        row.setBuiltAt(dashboard.getBuiltAt());
+        studentDashboardRepository.saveAndFlush(row);
+        return payload;
+    }
+
+    private StudentDashboardDTO build(Long studentId) {
+        User student = userRepository.findById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+
+        StudentDashboardDTO dashboard = new StudentDashboardDTO();
+        dashboard.setStudentId(studentId);
+        dashboard.setStudentName(student.getName());
+        dashboard.setEnrollments(enrollmentService.getEnrollmentsByStudent(studentId));
+        dashboard.setQuizSubmissions(quizService.getQuizSubmissionsByStudent(studentId));
+        dashboard.setAssignmentSubmissions(assignmentService.getSubmissionsByStudent(studentId));
+        dashboard.setReviews(courseReviewService.getReviewsByStudent(studentId));
+        dashboard.setBuiltAt(LocalDateTime.now());
+        return dashboard;
+    }
+
+    private void refreshQuietly() {
+        try {
+            int refreshed = refreshStale();
+            if (refreshed > 0) {
+                log.debug("Refreshed {} student dashboards", refreshed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to refresh student dashboards, will retry in {}", refreshInterval, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.learningplatform.service.enrollment;
+
+import com.example.learningplatform.entity.CourseWaitlistEntry;
+import com.example.learningplatform.entity.Enrollment;
+import com.example.learningplatform.entity.enums.EnrollmentStatus;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.CourseWaitlistRepository;
+import com.example.learningplatform.repository.EnrollmentRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Продвижение листа ожидания курса.
+ * <p>
+ * Вызывается в транзакции, которая освободила места (отписка, увеличение лимита) и уже заблокировала
+ * строку courses своим UPDATE. Поэтому параллельные продвижения одного курса идут по очереди, а каждое
+ * следующее видит, кого предыдущее уже записало. Место для каждого студента занимается тем же условным
+ * UPDATE, что и при обычной записи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseWaitlist {
+
+    private final CourseWaitlistRepository courseWaitlistRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Записывает студентов из головы очереди, пока есть места, и возвращает число записанных.
+     */
+    public int promote(Long courseId) {
+        int promoted = 0;
+        while (true) {
+            Optional<CourseWaitlistEntry> head = courseWaitlistRepository.findFirstByCourseIdOrderByIdAsc(courseId);
+            if (head.isEmpty()) {
+                break;
+            }
+            CourseWaitlistEntry entry = head.get();
+            // Студента могли записать в обход очереди (пакетная запись) - тогда запись в очереди просто снимаем
+            if (!enrollmentRepository.existsByStudentIdAndCourseId(entry.getStudentId(), courseId)) {
+                if (courseRepository.reserveSeats(courseId, 1) == 0) {
+                    break;
+                }
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(userRepository.getReferenceById(entry.getStudentId()));
+                enrollment.setCourse(courseRepository.getReferenceById(courseId));
+                enrollment.setStatus(EnrollmentStatus.ACTIVE);
+                enrollment.setProgress(0);
+                enrollmentRepository.save(enrollment);
+                eventPublisher.publishEvent(new StudentActivityEvent(entry.getStudentId()));
+                promoted++;
+                log.info("Student {} enrolled in course {} from the waitlist", entry.getStudentId(), courseId);
+            }
+            courseWaitlistRepository.delete(entry);
+        }
+        return promoted;
+    }
+}
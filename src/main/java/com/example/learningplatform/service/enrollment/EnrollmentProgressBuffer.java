@@ -0,0 +1,164 @@
+package com.example.learningplatform.service.enrollment;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Буфер обновлений прогресса записей на курсы (включается app.enrollment.progress-buffer.enabled).
+ * <p>
+ * Клиенты присылают прогресс после каждого урока; вместо транзакции с чтением и записью строки
+ * на каждый вызов значение кладётся в память (остаётся максимум), а фоновый поток периодически
+ * пишет накопившееся одним UPDATE на пачку записей. Прогресс только растёт, поэтому строки,
+ * где в базе уже не меньше, не перезаписываются. Чтение через EnrollmentService видит значение
+ * из буфера; при остановке приложения буфер дописывается.
+ */
+@Slf4j
+@Component
+public class EnrollmentProgressBuffer {
+
+    private static final String UPDATE_ROW_SQL =
+            "UPDATE enrollments SET progress = ? WHERE id = ? AND (progress IS NULL OR progress < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final boolean multiRowUpdate;
+
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    public EnrollmentProgressBuffer(JdbcTemplate jdbcTemplate,
+                                    @Value("${app.enrollment.progress-buffer.enabled:false}") boolean enabled,
+                                    @Value("${app.enrollment.progress-buffer.flush-interval:2s}") Duration flushInterval,
+                                    @Value("${app.enrollment.progress-buffer.batch-size:500}") int batchSize,
+                                    @Value("${app.enrollment.progress-buffer.multi-row-update:true}") boolean multiRowUpdate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.multiRowUpdate = multiRowUpdate;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-progress-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Enrollment progress buffer started, flushing every {}", flushInterval);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        int flushed = flush();
+        log.info("Enrollment progress buffer stopped, flushed {} pending updates", flushed);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(Long enrollmentId, int progress) {
+        pending.merge(enrollmentId, progress, Math::max);
+    }
+
+    /**
+     * Прогресс с учётом буфера: максимум из значения в базе и ещё не записанного.
+     */
+    public Integer resolve(Long enrollmentId, Integer storedProgress) {
+        Integer buffered = pending.get(enrollmentId);
+        if (buffered == null) {
+            return storedProgress;
+        }
+        return storedProgress == null ? buffered : Math.max(buffered, storedProgress);
+    }
+
+    public boolean isPending(Long enrollmentId) {
+        return pending.containsKey(enrollmentId);
+    }
+
+    public void discard(Long enrollmentId) {
+        pending.remove(enrollmentId);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Пишет накопленное в базу и возвращает число записанных значений. Значение убирается из буфера,
+     * только если за время записи не пришло новое; при ошибке всё остаётся до следующей попытки.
+     */
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, Integer>> snapshot = new ArrayList<>(pending.size());
+        pending.forEach((enrollmentId, progress) -> snapshot.add(Map.entry(enrollmentId, progress)));
+
+        for (int from = 0; from < snapshot.size(); from += batchSize) {
+            List<Map.Entry<Long, Integer>> chunk = snapshot.subList(from, Math.min(from + batchSize, snapshot.size()));
+            if (multiRowUpdate) {
+                updateWithValues(chunk);
+            } else {
+                jdbcTemplate.batchUpdate(UPDATE_ROW_SQL, chunk, chunk.size(), (ps, entry) -> {
+                    ps.setInt(1, entry.getValue());
+                    ps.setLong(2, entry.getKey());
+                    ps.setInt(3, entry.getValue());
+                });
+            }
+            chunk.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+        }
+
+        log.debug("Flushed {} buffered enrollment progress updates", snapshot.size());
+        return snapshot.size();
+    }
+
+    // Postgres: вся пачка - один оператор UPDATE ... FROM (VALUES ...)
+    private void updateWithValues(List<Map.Entry<Long, Integer>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE enrollments e SET progress = v.progress FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS BIGINT), CAST(? AS INTEGER))");
+            args[i * 2] = chunk.get(i).getKey();
+            args[i * 2 + 1] = chunk.get(i).getValue();
+        }
+        sql.append(") AS v(id, progress) WHERE e.id = v.id AND (e.progress IS NULL OR e.progress < v.progress)");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} buffered enrollment progress updates, will retry", pending.size(), e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.learningplatform.service.enrollment;
+
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.EnrollmentRepository;
+import com.example.learningplatform.repository.projection.RosterRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка списка записанных на курс студентов потоком.
+ * <p>
+ * Строки читаются курсором (EnrollmentRepository.streamRosterByCourseId) как проекции без сущностей,
+ * поэтому контекст персистентности не растёт, и сразу пишутся в ответ через буфер фиксированного размера:
+ * память не зависит от размера курса. Чтение идёт в транзакции, открытой на время записи ответа.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RosterExporter {
+
+    private static final String CSV_HEADER = "enrollment_id,student_id,student_name,student_email,enroll_date,status,progress";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentProgressBuffer progressBuffer;
+    private final ObjectMapper objectMapper;
+
+    // Проверка до начала ответа: после первых байт статус уже не поменять
+    @Transactional(readOnly = true)
+    public void requireCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+    }
+
+    /**
+     * Пишет список курса в поток и возвращает число строк.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long courseId, RosterFormat format, OutputStream out) throws IOException {
+        long rows;
+        try (Stream<RosterRow> roster = enrollmentRepository.streamRosterByCourseId(courseId)) {
+            Stream<RosterRow> resolved = roster.map(row -> progressBuffer.isPending(row.enrollmentId())
+                    ? row.withProgress(progressBuffer.resolve(row.enrollmentId(), row.progress()))
+                    : row);
+            rows = format == RosterFormat.CSV
+                    ? writeCsv(resolved.iterator(), out)
+                    : writeNdjson(resolved.iterator(), out);
+        }
+        log.info("Exported {} roster rows for course {} as {}", rows, courseId, format);
+        return rows;
+    }
+
+    private long writeCsv(Iterator<RosterRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            RosterRow row = rows.next();
+            writer.write(String.valueOf(row.enrollmentId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.studentId()));
+            writer.write(',');
+            writeCsvField(writer, row.studentName());
+            writer.write(',');
+            writeCsvField(writer, row.studentEmail());
+            writer.write(',');
+            writer.write(row.enrollDate() != null ? row.enrollDate().toString() : "");
+            writer.write(',');
+            writer.write(row.status() != null ? row.status().name() : "");
+            writer.write(',');
+            writer.write(row.progress() != null ? row.progress().toString() : "");
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: поле с разделителем, кавычкой или переводом строки берётся в кавычки, кавычки удваиваются
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeNdjson(Iterator<RosterRow> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Поток ответа закрывает контейнер, а не Jackson
+        try (SequenceWriter sequence = objectMapper.writerFor(RosterRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+                count++;
+            }
+        }
+        if (count > 0) {
+            writer.write('\n');
+        }
+        writer.flush();
+        return count;
+    }
+}
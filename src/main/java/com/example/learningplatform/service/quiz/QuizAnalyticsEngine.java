@@ -0,0 +1,61 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.QuizAnalyticsDTO;
+import com.example.learningplatform.repository.QuizSubmissionRepository;
+import com.example.learningplatform.repository.projection.SubmissionAnswersRow;
+import com.example.learningplatform.service.support.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Анализ вопросов теста: доля верных ответов, дискриминация (point-biserial) и частоты вариантов.
+ * <p>
+ * Суммы по тесту собираются из базы при первом запросе отчёта, дальше каждая сдача добавляется
+ * после коммита, и отчёт стоит O(вопросы), а не O(сдачи).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuizAnalyticsEngine {
+
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+
+    private final Map<Long, QuizStatistics> statistics = new ConcurrentHashMap<>();
+
+    public QuizAnalyticsDTO getAnalytics(Long quizId) {
+        // Ключ ответов загружаем до computeIfAbsent: он же проверяет существование теста
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+        return statistics.computeIfAbsent(quizId, id -> load(answerKey)).toDTO();
+    }
+
+    /**
+     * Учитывает сдачу после коммита; если суммы по тесту ещё не собраны, сдача попадёт в них при загрузке.
+     * Сдачу, закоммиченную до запроса загрузки, хук застанет уже в собранных суммах - её отсеет QuizStatistics.
+     */
+    public void recordSubmission(Long quizId, Long studentId, int score, byte[] answerMasks) {
+        TransactionHooks.afterCommit(() -> statistics.computeIfPresent(quizId, (id, quizStatistics) -> {
+            quizStatistics.add(studentId, score, answerMasks);
+            return quizStatistics;
+        }));
+    }
+
+    @EventListener
+    public void onQuizChanged(QuizChangedEvent event) {
+        statistics.remove(event.quizId());
+    }
+
+    private QuizStatistics load(QuizAnswerKey answerKey) {
+        QuizStatistics quizStatistics = new QuizStatistics(answerKey);
+        List<SubmissionAnswersRow> rows = quizSubmissionRepository.findAnswersByQuizId(answerKey.getQuizId());
+        rows.forEach(row -> quizStatistics.add(row.studentId(), row.score() != null ? row.score() : 0, row.answerMasks()));
+        log.debug("Loaded analytics for quiz {} from {} submissions", answerKey.getQuizId(), rows.size());
+        return quizStatistics;
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый "скомпилированный" ключ ответов теста.
+ * <p>
+ * Вопросы отсортированы по id. Варианты ответа каждого вопроса лежат подряд в общем массиве
+ * {@code optionIds} (отсортированы по id), позиция варианта внутри вопроса - его порядковый номер.
+ * Правильный ответ - битовая маска по порядковым номерам: {@code long} для вопросов до 64 вариантов,
+ * {@link BitSet} для более длинных. Ответ студента переводится в такую же маску, и проверка
+ * сводится к одному сравнению.
+ * <p>
+ * Для хранения ответов выбор студента упаковывается в байты: по {@code ceil(optionCount / 8)} байт на вопрос
+ * в порядке {@code questionIds}, бит - порядковый номер варианта (см. {@link #packSelections(Map)}).
+ * <p>
+ * Индексы вопросов и порядковые номера вариантов совпадают с порядком в {@code QuizService.getQuizWithQuestions},
+ * на них же строится перемешанный вариант студента ({@link QuizVariant}).
+ */
+public final class QuizAnswerKey {
+
+    private static final int MASK_BITS = Long.SIZE;
+
+    private final Long quizId;
+    private final String quizTitle;
+    private final int questionsPerAttempt;
+    private final long[] questionIds;
+    private final int[] points;
+    private final int[] optionOffsets;
+    private final long[] optionIds;
+    private final long[] correctMasks;
+    private final BitSet[] wideCorrectMasks;
+    private final int[] packedOffsets;
+    private final byte[] packedCorrect;
+
+    private QuizAnswerKey(Long quizId, String quizTitle, Integer questionsPerAttempt, long[] questionIds, int[] points,
+                          int[] optionOffsets, long[] optionIds, long[] correctMasks, BitSet[] wideCorrectMasks) {
+        this.quizId = quizId;
+        this.quizTitle = quizTitle;
+        this.questionsPerAttempt = questionsPerAttempt != null
+                ? Math.min(questionsPerAttempt, questionIds.length)
+                : questionIds.length;
+        this.questionIds = questionIds;
+        this.points = points;
+        this.optionOffsets = optionOffsets;
+        this.optionIds = optionIds;
+        this.correctMasks = correctMasks;
+        this.wideCorrectMasks = wideCorrectMasks;
+
+        int questionCount = questionIds.length;
+        this.packedOffsets = new int[questionCount + 1];
+        for (int question = 0; question < questionCount; question++) {
+            int optionCount = optionOffsets[question + 1] - optionOffsets[question];
+            packedOffsets[question + 1] = packedOffsets[question] + (optionCount + Byte.SIZE - 1) / Byte.SIZE;
+        }
+        this.packedCorrect = new byte[packedOffsets[questionCount]];
+        for (int question = 0; question < questionCount; question++) {
+            for (int ordinal = 0; ordinal < getOptionCount(question); ordinal++) {
+                if (isCorrectOption(question, ordinal)) {
+                    setBit(packedCorrect, question, ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * Строки должны быть отсортированы по questionId, optionId (см. QuizRepository.findAnswerKeyRows).
+     */
+    public static QuizAnswerKey compile(Long quizId, List<AnswerKeyRow> rows) {
+        String quizTitle = rows.isEmpty() ? null : rows.get(0).quizTitle();
+        Integer questionsPerAttempt = rows.isEmpty() ? null : rows.get(0).questionsPerAttempt();
+
+        int questionCount = 0;
+        int optionCount = 0;
+        Long previousQuestionId = null;
+        for (AnswerKeyRow row : rows) {
+            if (row.questionId() == null) {
+                continue;
+            }
+            if (!row.questionId().equals(previousQuestionId)) {
+                questionCount++;
+                previousQuestionId = row.questionId();
+            }
+            if (row.optionId() != null) {
+                optionCount++;
+            }
+        }
+
+        long[] questionIds = new long[questionCount];
+        int[] points = new int[questionCount];
+        int[] optionOffsets = new int[questionCount + 1];
+        long[] optionIds = new long[optionCount];
+        long[] correctMasks = new long[questionCount];
+        BitSet[] wideCorrectMasks = new BitSet[questionCount];
+
+        int question = -1;
+        int option = 0;
+        BitSet correct = new BitSet();
+        for (AnswerKeyRow row : rows) {
+            if (row.questionId() == null) {
+                continue;
+            }
+            if (question < 0 || questionIds[question] != row.questionId()) {
+                if (question >= 0) {
+                    storeCorrect(question, option - optionOffsets[question], correct, correctMasks, wideCorrectMasks);
+                }
+                question++;
+                questionIds[question] = row.questionId();
+                points[question] = row.points() != null ? row.points() : 0;
+                optionOffsets[question] = option;
+                correct.clear();
+            }
+            if (row.optionId() != null) {
+                if (Boolean.TRUE.equals(row.correct())) {
+                    correct.set(option - optionOffsets[question]);
+                }
+                optionIds[option++] = row.optionId();
+            }
+        }
+        if (question >= 0) {
+            storeCorrect(question, option - optionOffsets[question], correct, correctMasks, wideCorrectMasks);
+        }
+        optionOffsets[questionCount] = option;
+
+        return new QuizAnswerKey(quizId, quizTitle, questionsPerAttempt, questionIds, points,
+                optionOffsets, optionIds, correctMasks, wideCorrectMasks);
+    }
+
+    private static void storeCorrect(int question, int questionOptionCount, BitSet correct,
+                                     long[] correctMasks, BitSet[] wideCorrectMasks) {
+        if (questionOptionCount <= MASK_BITS) {
+            correctMasks[question] = correct.isEmpty() ? 0L : correct.toLongArray()[0];
+        } else {
+            wideCorrectMasks[question] = (BitSet) correct.clone();
+        }
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public String getQuizTitle() {
+        return quizTitle;
+    }
+
+    public int getQuestionCount() {
+        return questionIds.length;
+    }
+
+    /**
+     * Число вопросов в варианте одного студента: не больше размера банка.
+     */
+    public int getQuestionsPerAttempt() {
+        return questionsPerAttempt;
+    }
+
+    public boolean isPooled() {
+        return questionsPerAttempt < questionIds.length;
+    }
+
+    /**
+     * Индекс вопроса по id или -1, если вопроса в тесте нет.
+     */
+    public int indexOf(long questionId) {
+        int question = Arrays.binarySearch(questionIds, questionId);
+        return question >= 0 ? question : -1;
+    }
+
+    public int getMaxScore() {
+        return Arrays.stream(points).sum();
+    }
+
+    public long getQuestionId(int question) {
+        return questionIds[question];
+    }
+
+    public int getPoints(int question) {
+        return points[question];
+    }
+
+    public int getOptionCount(int question) {
+        return optionOffsets[question + 1] - optionOffsets[question];
+    }
+
+    public long getOptionId(int question, int ordinal) {
+        return optionIds[optionOffsets[question] + ordinal];
+    }
+
+    public boolean isCorrectOption(int question, int ordinal) {
+        if (getOptionCount(question) > MASK_BITS) {
+            return wideCorrectMasks[question].get(ordinal);
+        }
+        return (correctMasks[question] & (1L << ordinal)) != 0;
+    }
+
+    public int getPackedLength() {
+        return packedCorrect.length;
+    }
+
+    /**
+     * Отклоняет выбор варианта, не принадлежащего вопросу. Проверка идёт до оценки и упаковки: иначе
+     * {@link #score(Map)} не засчитал бы вопрос, а аналитика по упакованному выбору засчитала бы.
+     * Ответы на неизвестные вопросы оба пути одинаково игнорируют.
+     */
+    public void rejectForeignOptions(Map<Long, List<Long>> answers) {
+        for (Map.Entry<Long, List<Long>> entry : answers.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            int question = Arrays.binarySearch(questionIds, entry.getKey());
+            if (question < 0) {
+                continue;
+            }
+            for (Long optionId : entry.getValue()) {
+                if (ordinal(optionOffsets[question], optionOffsets[question + 1], optionId) < 0) {
+                    throw foreignOption(entry.getKey(), optionId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Упаковывает выбор студента. Неизвестные вопросы отбрасываются, чужой вариант отклоняется
+     * так же, как в {@link #rejectForeignOptions(Map)}.
+     */
+    public byte[] packSelections(Map<Long, List<Long>> answers) {
+        byte[] packed = new byte[packedCorrect.length];
+        for (Map.Entry<Long, List<Long>> entry : answers.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            int question = Arrays.binarySearch(questionIds, entry.getKey());
+            if (question < 0) {
+                continue;
+            }
+            int from = optionOffsets[question];
+            int to = optionOffsets[question + 1];
+            for (Long optionId : entry.getValue()) {
+                int ordinal = ordinal(from, to, optionId);
+                if (ordinal < 0) {
+                    throw foreignOption(entry.getKey(), optionId);
+                }
+                setBit(packed, question, ordinal);
+            }
+        }
+        return packed;
+    }
+
+    private static IllegalArgumentException foreignOption(Long questionId, Long optionId) {
+        return new IllegalArgumentException("Answer option " + optionId + " does not belong to question " + questionId);
+    }
+
+    public boolean isSelected(byte[] packed, int question, int ordinal) {
+        int bit = packedOffsets[question] * Byte.SIZE + ordinal;
+        return (packed[bit / Byte.SIZE] & (1 << (bit % Byte.SIZE))) != 0;
+    }
+
+    public boolean isAnsweredCorrectly(byte[] packed, int question) {
+        return Arrays.equals(packed, packedOffsets[question], packedOffsets[question + 1],
+                packedCorrect, packedOffsets[question], packedOffsets[question + 1]);
+    }
+
+    private void setBit(byte[] packed, int question, int ordinal) {
+        int bit = packedOffsets[question] * Byte.SIZE + ordinal;
+        packed[bit / Byte.SIZE] |= (byte) (1 << (bit % Byte.SIZE));
+    }
+
+    /**
+     * Вопрос засчитывается, если множество выбранных вариантов совпадает с множеством правильных.
+     * Ответы на неизвестные вопросы игнорируются, выбор чужого варианта делает ответ неверным.
+     */
+    public int score(Map<Long, List<Long>> answers) {
+        int score = 0;
+        for (Map.Entry<Long, List<Long>> entry : answers.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            int question = Arrays.binarySearch(questionIds, entry.getKey());
+            if (question >= 0 && isCorrect(question, entry.getValue())) {
+                score += points[question];
+            }
+        }
+        return score;
+    }
+
+    private boolean isCorrect(int question, List<Long> selectedOptionIds) {
+        int from = optionOffsets[question];
+        int to = optionOffsets[question + 1];
+        if (to - from > MASK_BITS) {
+            return isCorrectWide(question, from, to, selectedOptionIds);
+        }
+
+        long selected = 0L;
+        if (selectedOptionIds != null) {
+            for (Long optionId : selectedOptionIds) {
+                int ordinal = ordinal(from, to, optionId);
+                if (ordinal < 0) {
+                    return false;
+                }
+                selected |= 1L << ordinal;
+            }
+        }
+        return selected == correctMasks[question];
+    }
+
+    private boolean isCorrectWide(int question, int from, int to, List<Long> selectedOptionIds) {
+        BitSet selected = new BitSet(to - from);
+        if (selectedOptionIds != null) {
+            for (Long optionId : selectedOptionIds) {
+                int ordinal = ordinal(from, to, optionId);
+                if (ordinal < 0) {
+                    return false;
+                }
+                selected.set(ordinal);
+            }
+        }
+        return selected.equals(wideCorrectMasks[question]);
+    }
+
+    // Порядковый номер варианта внутри вопроса или -1, если вариант не из этого вопроса
+    private int ordinal(int from, int to, Long optionId) {
+        if (optionId == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(optionIds, from, to, optionId);
+        return index >= 0 ? index - from : -1;
+    }
+}
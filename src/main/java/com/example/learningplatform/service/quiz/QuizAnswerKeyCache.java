@@ -0,0 +1,49 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.QuizRepository;
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import com.example.learningplatform.service.support.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Кэш скомпилированных ключей ответов с ограничением по размеру. Ключ собирается одним запросом
+ * при первой сдаче теста, дальше проверка ответов не читает базу.
+ */
+@Component
+public class QuizAnswerKeyCache {
+
+    private final QuizRepository quizRepository;
+    private final Cache<Long, QuizAnswerKey> cache;
+
+    public QuizAnswerKeyCache(QuizRepository quizRepository,
+                              @Value("${app.quiz.answer-key-cache.max-size:1000}") long maxSize) {
+        this.quizRepository = quizRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public QuizAnswerKey get(Long quizId) {
+        return cache.get(quizId, this::load);
+    }
+
+    public void invalidate(Long quizId) {
+        cache.invalidate(quizId);
+        // Повторно после коммита: параллельный запрос мог успеть закэшировать ещё не удалённые данные
+        TransactionHooks.afterCommit(() -> cache.invalidate(quizId));
+    }
+
+    private QuizAnswerKey load(Long quizId) {
+        List<AnswerKeyRow> rows = quizRepository.findAnswerKeyRows(quizId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Quiz not found with id: " + quizId);
+        }
+        return QuizAnswerKey.compile(quizId, rows);
+    }
+}
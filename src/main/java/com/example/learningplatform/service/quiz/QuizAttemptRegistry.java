@@ -0,0 +1,141 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.entity.QuizAttempt;
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import com.example.learningplatform.repository.QuizAttemptRepository;
+import com.example.learningplatform.service.support.HashedTimingWheel;
+import com.example.learningplatform.service.support.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Открытые попытки прохождения тестов с ограничением по времени.
+ * <p>
+ * Попытки живут в памяти, а их дедлайны - в одном таймерном колесе на всё приложение. Попытка закрывается
+ * по истечении времени плюс app.quiz.attempts.grace - столько же сдача принимается после дедлайна. Строка
+ * quiz_attempts пишется при старте попытки и при её завершении; истёкшие за тик попытки закрываются
+ * одним JDBC batch. После перезапуска открытые попытки поднимаются из базы, а просроченные за время
+ * простоя закрываются на первом тике. Попытки без ограничения по времени сюда не попадают: закрывать
+ * их некому, и сдача проверяет их по базе.
+ */
+@Slf4j
+@Component
+public class QuizAttemptRegistry {
+
+    private static final String EXPIRE_SQL =
+            "UPDATE quiz_attempts SET status = ?, finished_at = ? WHERE id = ? AND status = ?";
+
+    private static final Duration EXPIRE_RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration grace;
+    private final HashedTimingWheel<Long> expiryWheel;
+
+    private final Map<Long, OpenAttempt> openAttempts = new ConcurrentHashMap<>();
+
+    public QuizAttemptRegistry(QuizAttemptRepository quizAttemptRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${app.quiz.attempts.grace:5s}") Duration grace,
+                               @Value("${app.quiz.attempts.tick:1s}") Duration tick,
+                               @Value("${app.quiz.attempts.wheel-size:512}") int wheelSize) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.grace = grace;
+        this.expiryWheel = new HashedTimingWheel<>("quiz-attempt-expiry", tick, wheelSize, this::expire);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<QuizAttempt> attempts = quizAttemptRepository.findByStatusAndExpiresAtIsNotNull(QuizAttemptStatus.IN_PROGRESS);
+        attempts.forEach(this::track);
+        expiryWheel.start();
+        log.info("Quiz attempt registry started with {} open attempts", attempts.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        expiryWheel.stop();
+    }
+
+    /**
+     * Начинает отслеживать попытку с ограничением по времени после коммита её строки.
+     */
+    public void register(QuizAttempt attempt) {
+        if (attempt.getExpiresAt() == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> track(attempt));
+    }
+
+    /**
+     * Открытая попытка из памяти или null, если её здесь нет (завершена, без ограничения по времени
+     * или начата на другом узле).
+     */
+    public OpenAttempt get(Long attemptId) {
+        return openAttempts.get(attemptId);
+    }
+
+    /**
+     * Снимает попытку с отслеживания после коммита сдачи.
+     */
+    public void complete(Long attemptId) {
+        TransactionHooks.afterCommit(() -> {
+            OpenAttempt attempt = openAttempts.remove(attemptId);
+            if (attempt != null) {
+                attempt.timeout().cancel();
+            }
+        });
+    }
+
+    public int getOpenAttemptCount() {
+        return openAttempts.size();
+    }
+
+    private void track(QuizAttempt attempt) {
+        HashedTimingWheel.Timeout<Long> timeout = expiryWheel.schedule(attempt.getId(),
+                attempt.getExpiresAt().plus(grace).atZone(ZoneId.systemDefault()).toInstant());
+        openAttempts.put(attempt.getId(), new OpenAttempt(attempt.getId(), attempt.getQuizId(),
+                attempt.getStudentId(), attempt.getExpiresAt(), timeout));
+    }
+
+    // Вызывается нитью колеса
+    private void expire(List<Long> attemptIds) {
+        Timestamp finishedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(EXPIRE_SQL, attemptIds, attemptIds.size(), (ps, attemptId) -> {
+                ps.setString(1, QuizAttemptStatus.EXPIRED.name());
+                ps.setTimestamp(2, finishedAt);
+                ps.setLong(3, attemptId);
+                ps.setString(4, QuizAttemptStatus.IN_PROGRESS.name());
+            });
+        } catch (DataAccessException e) {
+            // Сдача после дедлайна всё равно отклоняется по времени, закрыть строки попробуем позже
+            log.warn("Failed to expire {} quiz attempts, retrying in {}", attemptIds.size(), EXPIRE_RETRY_DELAY, e);
+            Instant retryAt = Instant.now().plus(EXPIRE_RETRY_DELAY);
+            attemptIds.forEach(attemptId -> expiryWheel.schedule(attemptId, retryAt));
+            return;
+        }
+        attemptIds.forEach(openAttempts::remove);
+        log.debug("Expired {} quiz attempts", attemptIds.size());
+    }
+
+    public record OpenAttempt(Long id, Long quizId, Long studentId, LocalDateTime expiresAt,
+                              HashedTimingWheel.Timeout<Long> timeout) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.learningplatform.service.quiz;
+
+/**
+ * Публикуется {@link com.example.learningplatform.service.QuizService} при любом изменении теста,
+ * его вопросов или вариантов ответа.
+ */
+public record QuizChangedEvent(Long quizId) {
+}
@@ -0,0 +1,135 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.LeaderboardEntryDTO;
+import com.example.learningplatform.dto.StudentRankDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Таблица результатов одного теста.
+ * <p>
+ * Дерево Фенвика по баллам 0..maxScore даёт число студентов с баллом выше заданного за O(log maxScore),
+ * отсортированное множество - первые N мест за O(log n + N). Студент попадает в таблицу один раз:
+ * повторная запись (например, сдача, уже учтённая при загрузке) игнорируется.
+ */
+final class QuizLeaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+            .thenComparing(Entry::takenAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::studentId);
+
+    private final int maxScore;
+    // Индексы 1..maxScore + 1 соответствуют баллам 0..maxScore
+    private final int[] tree;
+    private final NavigableSet<Entry> ranking = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> byStudent = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    QuizLeaderboard(int maxScore) {
+        this.maxScore = Math.max(0, maxScore);
+        this.tree = new int[this.maxScore + 2];
+    }
+
+    void add(Long studentId, String studentName, int score, LocalDateTime takenAt) {
+        Entry entry = new Entry(studentId, studentName, clamp(score), takenAt);
+        lock.writeLock().lock();
+        try {
+            if (byStudent.putIfAbsent(studentId, entry) != null) {
+                return;
+            }
+            ranking.add(entry);
+            for (int i = entry.score() + 1; i < tree.length; i += i & -i) {
+                tree[i]++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<LeaderboardEntryDTO> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntryDTO> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            int position = 0;
+            int rank = 0;
+            Integer previousScore = null;
+            for (Entry entry : ranking) {
+                if (position == limit) {
+                    break;
+                }
+                position++;
+                if (previousScore == null || entry.score() != previousScore) {
+                    rank = position;
+                    previousScore = entry.score();
+                }
+                result.add(entry.toDTO(rank));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    StudentRankDTO rank(Long quizId, Long studentId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byStudent.get(studentId);
+            if (entry == null) {
+                return null;
+            }
+            StudentRankDTO dto = new StudentRankDTO();
+            dto.setQuizId(quizId);
+            dto.setStudentId(studentId);
+            dto.setStudentName(entry.studentName());
+            dto.setScore(entry.score());
+            dto.setParticipants(byStudent.size());
+            dto.setRank(byStudent.size() - countAtMost(entry.score()) + 1);
+            return dto;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return byStudent.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Число студентов с баллом не выше score
+    private int countAtMost(int score) {
+        int count = 0;
+        for (int i = score + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    private int clamp(int score) {
+        return Math.min(Math.max(score, 0), maxScore);
+    }
+
+    private record Entry(Long studentId, String studentName, int score, LocalDateTime takenAt) {
+        LeaderboardEntryDTO toDTO(int rank) {
+            LeaderboardEntryDTO dto = new LeaderboardEntryDTO();
+            dto.setRank(rank);
+            dto.setStudentId(studentId);
+            dto.setStudentName(studentName);
+            dto.setScore(score);
+            dto.setTakenAt(takenAt);
+            return dto;
+        }
+    }
+}
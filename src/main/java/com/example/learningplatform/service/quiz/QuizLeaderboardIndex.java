@@ -0,0 +1,76 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.LeaderboardEntryDTO;
+import com.example.learningplatform.dto.StudentRankDTO;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.QuizSubmissionRepository;
+import com.example.learningplatform.repository.projection.LeaderboardRow;
+import com.example.learningplatform.service.support.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таблицы результатов тестов в памяти. Таблица строится из базы при первом запросе,
+ * дальше каждая сдача добавляется после коммита.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuizLeaderboardIndex {
+
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+
+    private final Map<Long, QuizLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    public List<LeaderboardEntryDTO> top(Long quizId, int limit) {
+        return leaderboard(quizId).top(limit);
+    }
+
+    public StudentRankDTO rank(Long quizId, Long studentId) {
+        StudentRankDTO rank = leaderboard(quizId).rank(quizId, studentId);
+        if (rank == null) {
+            throw new ResourceNotFoundException("Student " + studentId + " has not taken quiz " + quizId);
+        }
+        return rank;
+    }
+
+    /**
+     * Добавляет сдачу после коммита. computeIfPresent дожидается идущей загрузки таблицы: сдачу, которую
+     * запрос загрузки не увидел, хук добавит, а увиденную отсеет повторная запись в QuizLeaderboard.
+     */
+    public void recordSubmission(Long quizId, Long studentId, String studentName, int score, LocalDateTime takenAt) {
+        TransactionHooks.afterCommit(() -> leaderboards.computeIfPresent(quizId, (id, leaderboard) -> {
+            leaderboard.add(studentId, studentName, score, takenAt);
+            return leaderboard;
+        }));
+    }
+
+    @EventListener
+    public void onQuizChanged(QuizChangedEvent event) {
+        leaderboards.remove(event.quizId());
+    }
+
+    private QuizLeaderboard leaderboard(Long quizId) {
+        // Ключ ответов проверяет существование теста и даёт максимальный балл для дерева Фенвика
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+        return leaderboards.computeIfAbsent(quizId, id -> load(answerKey));
+    }
+
+    private QuizLeaderboard load(QuizAnswerKey answerKey) {
+        QuizLeaderboard leaderboard = new QuizLeaderboard(answerKey.getMaxScore());
+        List<LeaderboardRow> rows = quizSubmissionRepository.findLeaderboardRows(answerKey.getQuizId());
+        for (LeaderboardRow row : rows) {
+            leaderboard.add(row.studentId(), row.studentName(), row.score() != null ? row.score() : 0, row.takenAt());
+        }
+        log.debug("Loaded leaderboard for quiz {} with {} submissions", answerKey.getQuizId(), rows.size());
+        return leaderboard;
+    }
+}
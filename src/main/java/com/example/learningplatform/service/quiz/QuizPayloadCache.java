@@ -0,0 +1,159 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.AnswerOptionDTO;
+import com.example.learningplatform.dto.QuestionDetailDTO;
+import com.example.learningplatform.dto.QuizDetailDTO;
+import com.example.learningplatform.service.QuizService;
+import com.example.learningplatform.service.support.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Кэш сериализованных тестов для GET /api/quizzes/{id}.
+ * <p>
+ * Оба варианта (для преподавателя и для студента) строятся из одной загрузки теста и хранятся
+ * готовыми байтами JSON, поэтому повторный запрос - это копирование массива без обращения к базе
+ * и без сериализации. Параллельные промахи по одному тесту ждут единственную загрузку.
+ * <p>
+ * Персональные варианты студентов ({@link QuizVariant}) собираются из закэшированного студенческого
+ * представления перестановкой вопросов и вариантов, тоже без обращения к базе.
+ */
+@Component
+public class QuizPayloadCache {
+
+    private final QuizService quizService;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Payloads> cache;
+
+    public QuizPayloadCache(QuizService quizService,
+                            QuizAnswerKeyCache quizAnswerKeyCache,
+                            ObjectMapper objectMapper,
+                            @Value("${app.quiz.payload-cache.max-size:500}") long maxSize) {
+        this.quizService = quizService;
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public RenderedQuiz get(Long quizId, QuizView view) {
+        Payloads payloads = cache.get(quizId, this::load);
+        return view == QuizView.TEACHER ? payloads.teacher() : payloads.student();
+    }
+
+    /**
+     * Тест в порядке вопросов и вариантов, который видит студент; без правильных ответов.
+     */
+    public QuizDetailDTO getVariant(Long quizId, Long studentId) {
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+        QuizDetailDTO quiz = cache.get(quizId, this::load).studentQuiz();
+        if (!isSameStructure(answerKey, quiz)) {
+            // Кэши перезагружаются независимо: после изменения теста один мог успеть раньше другого
+            invalidate(quizId);
+            quiz = cache.get(quizId, this::load).studentQuiz();
+            if (!isSameStructure(answerKey, quiz)) {
+                throw new IllegalStateException("Quiz " + quizId + " is being modified, try again");
+            }
+        }
+        return buildVariant(quiz, QuizVariant.generate(answerKey, studentId));
+    }
+
+    @EventListener
+    public void onQuizChanged(QuizChangedEvent event) {
+        invalidate(event.quizId());
+    }
+
+    public void invalidate(Long quizId) {
+        cache.invalidate(quizId);
+        // Повторно после коммита, как и в QuizAnswerKeyCache
+        TransactionHooks.afterCommit(() -> cache.invalidate(quizId));
+    }
+
+    private Payloads load(Long quizId) {
+        QuizDetailDTO quiz = quizService.getQuizWithQuestions(quizId);
+        RenderedQuiz teacher = render(quiz);
+        stripAnswers(quiz);
+        RenderedQuiz student = render(quiz);
+        return new Payloads(teacher, student, quiz);
+    }
+
+    private static boolean isSameStructure(QuizAnswerKey answerKey, QuizDetailDTO quiz) {
+        List<QuestionDetailDTO> questions = quiz.getQuestions();
+        if (questions.size() != answerKey.getQuestionCount()) {
+            return false;
+        }
+        for (int question = 0; question < questions.size(); question++) {
+            if (questions.get(question).getId() != answerKey.getQuestionId(question)
+                    || questions.get(question).getOptions().size() != answerKey.getOptionCount(question)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Закэшированные DTO вопросов и вариантов не меняются, в вариант попадают новые списки
+    private static QuizDetailDTO buildVariant(QuizDetailDTO quiz, QuizVariant variant) {
+        QuizDetailDTO dto = new QuizDetailDTO();
+        dto.setId(quiz.getId());
+        dto.setTitle(quiz.getTitle());
+        dto.setDescription(quiz.getDescription());
+        dto.setTimeLimit(quiz.getTimeLimit());
+        dto.setCourseId(quiz.getCourseId());
+        dto.setCourseTitle(quiz.getCourseTitle());
+        dto.setModuleId(quiz.getModuleId());
+        dto.setModuleTitle(quiz.getModuleTitle());
+        dto.setMaxScore(quiz.getMaxScore());
+        dto.setPassingScore(quiz.getPassingScore());
+        dto.setQuestionsPerAttempt(quiz.getQuestionsPerAttempt());
+
+        List<QuestionDetailDTO> questions = new ArrayList<>(variant.getQuestionCount());
+        for (int position = 0; position < variant.getQuestionCount(); position++) {
+            QuestionDetailDTO source = quiz.getQuestions().get(variant.getQuestion(position));
+            List<AnswerOptionDTO> options = new ArrayList<>(source.getOptions().size());
+            for (int optionPosition = 0; optionPosition < source.getOptions().size(); optionPosition++) {
+                options.add(source.getOptions().get(variant.getOption(position, optionPosition)));
+            }
+
+            QuestionDetailDTO question = new QuestionDetailDTO();
+            question.setId(source.getId());
+            question.setText(source.getText());
+            question.setType(source.getType());
+            question.setPoints(source.getPoints());
+            question.setOptions(options);
+            questions.add(question);
+        }
+        dto.setQuestions(questions);
+        return dto;
+    }
+
+    private static void stripAnswers(QuizDetailDTO quiz) {
+        for (QuestionDetailDTO question : quiz.getQuestions()) {
+            for (AnswerOptionDTO option : question.getOptions()) {
+                option.setIsCorrect(null);
+            }
+        }
+    }
+
+    private RenderedQuiz render(QuizDetailDTO quiz) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(quiz);
+            return new RenderedQuiz(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz " + quiz.getId(), e);
+        }
+    }
+
+    private record Payloads(RenderedQuiz teacher, RenderedQuiz student, QuizDetailDTO studentQuiz) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.OptionAnalyticsDTO;
+import com.example.learningplatform.dto.QuestionAnalyticsDTO;
+import com.example.learningplatform.dto.QuizAnalyticsDTO;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Накопительные суммы по сдачам одного теста. Добавление сдачи - O(вопросы + варианты),
+ * отчёт считается из сумм без обращения к отдельным сдачам.
+ * <p>
+ * В тесте с банком вопросов каждый студент видит только свой вариант, поэтому показатели вопроса
+ * считаются по тем, кому он достался: вариант восстанавливается из пары (тест, студент) при добавлении сдачи.
+ * <p>
+ * У студента одна сдача на тест, поэтому повторное добавление (сдача, уже учтённая при загрузке) игнорируется.
+ */
+final class QuizStatistics {
+
+    private final QuizAnswerKey answerKey;
+    private final Set<Long> studentIds = new HashSet<>();
+
+    private long submissionCount;
+    private long scoreSum;
+    private long scoreSquareSum;
+
+    // По вопросам: сколько студентов его получили и суммы их общих баллов (для point-biserial),
+    // число верных ответов и сумма общих баллов верно ответивших
+    private final long[] exposedCounts;
+    private final long[] exposedScoreSums;
+    private final long[] exposedScoreSquareSums;
+    private final long[] correctCounts;
+    private final long[] correctScoreSums;
+    private final long[][] optionCounts;
+
+    QuizStatistics(QuizAnswerKey answerKey) {
+        this.answerKey = answerKey;
+        int questionCount = answerKey.getQuestionCount();
+        this.exposedCounts = new long[questionCount];
+        this.exposedScoreSums = new long[questionCount];
+        this.exposedScoreSquareSums = new long[questionCount];
+        this.correctCounts = new long[questionCount];
+        this.correctScoreSums = new long[questionCount];
+        this.optionCounts = new long[questionCount][];
+        for (int question = 0; question < questionCount; question++) {
+            optionCounts[question] = new long[answerKey.getOptionCount(question)];
+        }
+    }
+
+    /**
+     * Упаковка другой длины значит, что сдача сделана по другой версии теста, - такую пропускаем.
+     */
+    synchronized void add(long studentId, int score, byte[] answerMasks) {
+        if (answerMasks == null || answerMasks.length != answerKey.getPackedLength()) {
+            return;
+        }
+        if (!studentIds.add(studentId)) {
+            return;
+        }
+        submissionCount++;
+        scoreSum += score;
+        scoreSquareSum += (long) score * score;
+
+        QuizVariant variant = answerKey.isPooled() ? QuizVariant.generate(answerKey, studentId) : null;
+        for (int question = 0; question < correctCounts.length; question++) {
+            if (variant != null && !variant.contains(question)) {
+                continue;
+            }
+            exposedCounts[question]++;
+            exposedScoreSums[question] += score;
+            exposedScoreSquareSums[question] += (long) score * score;
+
+            if (answerKey.isAnsweredCorrectly(answerMasks, question)) {
+                correctCounts[question]++;
+                correctScoreSums[question] += score;
+            }
+            long[] counts = optionCounts[question];
+            for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                if (answerKey.isSelected(answerMasks, question, ordinal)) {
+                    counts[ordinal]++;
+                }
+            }
+        }
+    }
+
+    synchronized QuizAnalyticsDTO toDTO() {
+        QuizAnalyticsDTO dto = new QuizAnalyticsDTO();
+        dto.setQuizId(answerKey.getQuizId());
+        dto.setQuizTitle(answerKey.getQuizTitle());
+        dto.setSubmissionCount(submissionCount);
+
+        if (submissionCount > 0) {
+            dto.setAverageScore((double) scoreSum / submissionCount);
+            dto.setScoreStandardDeviation(standardDeviation(submissionCount, scoreSum, scoreSquareSum));
+        }
+
+        for (int question = 0; question < correctCounts.length; question++) {
+            long exposed = exposedCounts[question];
+            QuestionAnalyticsDTO questionDTO = new QuestionAnalyticsDTO();
+            questionDTO.setQuestionId(answerKey.getQuestionId(question));
+            questionDTO.setPoints(answerKey.getPoints(question));
+            questionDTO.setExposedCount(exposed);
+            questionDTO.setCorrectCount(correctCounts[question]);
+            if (exposed > 0) {
+                questionDTO.setPercentCorrect((double) correctCounts[question] / exposed);
+                questionDTO.setDiscrimination(pointBiserial(question));
+            }
+
+            long[] counts = optionCounts[question];
+            for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                OptionAnalyticsDTO optionDTO = new OptionAnalyticsDTO();
+                optionDTO.setOptionId(answerKey.getOptionId(question, ordinal));
+                optionDTO.setIsCorrect(answerKey.isCorrectOption(question, ordinal));
+                optionDTO.setSelectedCount(counts[ordinal]);
+                if (exposed > 0) {
+                    optionDTO.setSelectedRate((double) counts[ordinal] / exposed);
+                }
+                questionDTO.getOptions().add(optionDTO);
+            }
+            dto.getQuestions().add(questionDTO);
+        }
+        return dto;
+    }
+
+    // r = (M1 - M0) / s * sqrt(p * q) по студентам, получившим вопрос; не определена, если все они
+    // ответили одинаково или их баллы не различаются
+    private Double pointBiserial(int question) {
+        long exposed = exposedCounts[question];
+        long correct = correctCounts[question];
+        long incorrect = exposed - correct;
+        double standardDeviation = standardDeviation(exposed, exposedScoreSums[question], exposedScoreSquareSums[question]);
+        if (correct == 0 || incorrect == 0 || standardDeviation == 0) {
+            return null;
+        }
+        double correctMean = (double) correctScoreSums[question] / correct;
+        double incorrectMean = (double) (exposedScoreSums[question] - correctScoreSums[question]) / incorrect;
+        double p = (double) correct / exposed;
+        return (correctMean - incorrectMean) / standardDeviation * Math.sqrt(p * (1 - p));
+    }
+
+    private static double standardDeviation(long count, long sum, long squareSum) {
+        double mean = (double) sum / count;
+        return Math.sqrt(Math.max(0, (double) squareSum / count - mean * mean));
+    }
+}
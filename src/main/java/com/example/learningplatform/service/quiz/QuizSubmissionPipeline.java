@@ -0,0 +1,342 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.SubmissionTicketDTO;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.exception.TooManyRequestsException;
+import com.example.learningplatform.repository.QuizRepository;
+import com.example.learningplatform.repository.QuizSubmissionRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.dashboard.StudentActivityEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Асинхронный приём ответов на тесты для пиковой нагрузки (включается app.quiz.async-submission.enabled).
+ * <p>
+ * Запрос только проверяется и кладётся в ограниченную очередь, клиент получает тикет. Пул обработчиков
+ * забирает ответы пачками, проверяет их по кэшированному ключу ответов и вставляет строки
+ * quiz_submissions одним JDBC batch в одной транзакции. При заполненной очереди запрос отклоняется
+ * с {@link TooManyRequestsException}; при остановке приложения очередь дообрабатывается.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.quiz.async-submission.enabled", havingValue = "true")
+public class QuizSubmissionPipeline {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_submissions (quiz_id, student_id, score, taken_at, answer_masks) VALUES (?, ?, ?, ?, ?)";
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizAnalyticsEngine quizAnalyticsEngine;
+    private final QuizLeaderboardIndex quizLeaderboardIndex;
+    private final UserRepository userRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final QuizRepository quizRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<PendingSubmission> queue;
+    private final Cache<String, SubmissionTicketDTO> tickets;
+    // studentId:quizId ответов, которые ещё в очереди, - чтобы повторная отправка не прошла проверку дубликата
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+
+    private volatile boolean accepting = true;
+    // Приём идёт под read-блокировкой, остановка снимает accepting под write: после этого ни один
+    // enqueue уже не положит ответ в очередь, которую shutdown() дообрабатывает
+    private final ReadWriteLock admissionLock = new ReentrantReadWriteLock();
+
+    public QuizSubmissionPipeline(QuizAnswerKeyCache quizAnswerKeyCache,
+                                  QuizAnalyticsEngine quizAnalyticsEngine,
+                                  QuizLeaderboardIndex quizLeaderboardIndex,
+                                  UserRepository userRepository,
+                                  QuizSubmissionRepository quizSubmissionRepository,
+                                  QuizRepository quizRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.quiz.async-submission.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.quiz.async-submission.workers:4}") int workerCount,
+                                  @Value("${app.quiz.async-submission.batch-size:100}") int batchSize,
+                                  @Value("${app.quiz.async-submission.ticket-ttl:1h}") Duration ticketTtl,
+                                  @Value("${app.quiz.async-submission.max-tickets:100000}") long maxTickets,
+                                  @Value("${app.quiz.async-submission.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.quizAnswerKeyCache = quizAnswerKeyCache;
+        this.quizAnalyticsEngine = quizAnalyticsEngine;
+        this.quizLeaderboardIndex = quizLeaderboardIndex;
+        this.userRepository = userRepository;
+        this.quizSubmissionRepository = quizSubmissionRepository;
+        this.quizRepository = quizRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Всплеск сдач не должен держать в куче все тикеты за ticket-ttl: сверх лимита старые вытесняются
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .maximumSize(maxTickets)
+                .build();
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("quiz-submission-", 0).factory());
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+        log.info("Started async quiz submission pipeline with {} workers", workerCount);
+    }
+
+    public SubmissionTicketDTO enqueue(Long quizId, Long studentId, Map<Long, List<Long>> answers) {
+        admissionLock.readLock().lock();
+        try {
+            if (!accepting) {
+                throw new TooManyRequestsException("Submission pipeline is shutting down, retry later");
+            }
+            return admit(quizId, studentId, answers);
+        } finally {
+            admissionLock.readLock().unlock();
+        }
+    }
+
+    private SubmissionTicketDTO admit(Long quizId, Long studentId, Map<Long, List<Long>> answers) {
+        // Ключ ответов из кэша: заодно проверяет существование теста
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+        String studentName = userRepository.findNameById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found with id: " + studentId));
+        // Та же проверка варианта, что и при синхронной сдаче: до выдачи тикета
+        if (answerKey.isPooled()) {
+            QuizVariant.generate(answerKey, studentId).rejectQuestionsOutside(answerKey, answers);
+        }
+        answerKey.rejectForeignOptions(answers);
+
+        String inFlightKey = studentId + ":" + quizId;
+        if (!inFlight.add(inFlightKey)) {
+            throw new IllegalArgumentException("Student has already taken this quiz");
+        }
+        if (quizSubmissionRepository.existsByStudentIdAndQuizId(studentId, quizId)) {
+            inFlight.remove(inFlightKey);
+            throw new IllegalArgumentException("Student has already taken this quiz");
+        }
+
+        SubmissionTicketDTO ticket = new SubmissionTicketDTO();
+        ticket.setTicketId(UUID.randomUUID().toString());
+        ticket.setStatus(SubmissionTicketStatus.PENDING);
+        ticket.setQuizId(quizId);
+        ticket.setQuizTitle(answerKey.getQuizTitle());
+        ticket.setStudentId(studentId);
+        ticket.setStudentName(studentName);
+        ticket.setSubmittedAt(LocalDateTime.now());
+        tickets.put(ticket.getTicketId(), ticket);
+
+        if (!queue.offer(new PendingSubmission(ticket, answers))) {
+            tickets.invalidate(ticket.getTicketId());
+            inFlight.remove(inFlightKey);
+            throw new TooManyRequestsException("Submission queue is full, retry later");
+        }
+        return copyOf(ticket);
+    }
+
+    public SubmissionTicketDTO getTicket(String ticketId) {
+        SubmissionTicketDTO ticket = tickets.getIfPresent(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Submission ticket not found: " + ticketId);
+        }
+        return copyOf(ticket);
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        admissionLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            admissionLock.writeLock().unlock();
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Quiz submission workers did not finish in {}", shutdownTimeout);
+        }
+
+        // Ответы, успевшие попасть в очередь после выхода обработчиков, сохраняем в текущем потоке
+        List<PendingSubmission> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            process(remaining);
+        }
+        log.info("Async quiz submission pipeline stopped");
+    }
+
+    private void runWorker() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                PendingSubmission first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!accepting) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in quiz submission worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void process(List<PendingSubmission> batch) {
+        List<GradedSubmission> graded = new ArrayList<>(batch.size());
+        for (PendingSubmission pending : batch) {
+            try {
+                QuizAnswerKey answerKey = quizAnswerKeyCache.get(pending.ticket().getQuizId());
+                graded.add(new GradedSubmission(pending.ticket(), answerKey.score(pending.answers()),
+                        answerKey.packSelections(pending.answers())));
+            } catch (RuntimeException e) {
+                fail(pending.ticket(), e);
+            }
+        }
+
+        try {
+            insert(graded);
+        } catch (DataAccessException e) {
+            // Одна плохая строка (например, дубликат) не должна отменять всю пачку
+            log.warn("Batch insert of {} quiz submissions failed, retrying one by one: {}", graded.size(), e.getMessage());
+            for (GradedSubmission submission : graded) {
+                try {
+                    insert(List.of(submission));
+                } catch (DataAccessException rowException) {
+                    fail(submission.ticket(), rowException);
+                }
+            }
+        } finally {
+            batch.forEach(pending -> inFlight.remove(pending.ticket().getStudentId() + ":" + pending.ticket().getQuizId()));
+        }
+    }
+
+    private void insert(List<GradedSubmission> graded) {
+        if (graded.isEmpty()) {
+            return;
+        }
+        Set<Long> existingQuizIds = transactionTemplate.execute(status -> {
+            // Как при синхронной сдаче: разделяемая блокировка тестов до вставки, удалённый тест сдачу отклоняет
+            Set<Long> quizIds = new HashSet<>(quizRepository.lockIdsForSubmission(graded.stream()
+                    .map(submission -> submission.ticket().getQuizId())
+                    .distinct()
+                    .toList()));
+            List<GradedSubmission> rows = graded.stream()
+                    .filter(submission -> quizIds.contains(submission.ticket().getQuizId()))
+                    .toList();
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, submission) -> {
+                    ps.setLong(1, submission.ticket().getQuizId());
+                    ps.setLong(2, submission.ticket().getStudentId());
+                    ps.setInt(3, submission.score());
+                    ps.setTimestamp(4, Timestamp.valueOf(submission.ticket().getSubmittedAt()));
+                    ps.setBytes(5, submission.answerMasks());
+                });
+            }
+            return quizIds;
+        });
+        for (GradedSubmission submission : graded) {
+            Long quizId = submission.ticket().getQuizId();
+            if (existingQuizIds.contains(quizId)) {
+                complete(submission);
+            } else {
+                fail(submission.ticket(), new ResourceNotFoundException("Quiz not found with id: " + quizId));
+            }
+        }
+    }
+
+    private void complete(GradedSubmission submission) {
+        SubmissionTicketDTO ticket = copyOf(submission.ticket());
+        ticket.setStatus(SubmissionTicketStatus.COMPLETED);
+        ticket.setScore(submission.score());
+        tickets.put(ticket.getTicketId(), ticket);
+        quizAnalyticsEngine.recordSubmission(ticket.getQuizId(), ticket.getStudentId(), submission.score(),
+                submission.answerMasks());
+        quizLeaderboardIndex.recordSubmission(ticket.getQuizId(), ticket.getStudentId(), ticket.getStudentName(),
+                submission.score(), ticket.getSubmittedAt());
+        eventPublisher.publishEvent(new StudentActivityEvent(ticket.getStudentId()));
+        log.info("Student {} submitted quiz {} with score {}", ticket.getStudentId(), ticket.getQuizId(), ticket.getScore());
+    }
+
+    private void fail(SubmissionTicketDTO pendingTicket, Exception cause) {
+        SubmissionTicketDTO ticket = copyOf(pendingTicket);
+        ticket.setStatus(SubmissionTicketStatus.FAILED);
+        ticket.setError(cause.getMessage());
+        tickets.put(ticket.getTicketId(), ticket);
+        log.warn("Quiz submission {} failed: {}", ticket.getTicketId(), cause.getMessage());
+    }
+
+    // Тикеты в кэше не меняются: каждое изменение статуса кладёт новую копию
+    private static SubmissionTicketDTO copyOf(SubmissionTicketDTO source) {
+        SubmissionTicketDTO copy = new SubmissionTicketDTO();
+        copy.setTicketId(source.getTicketId());
+        copy.setStatus(source.getStatus());
+        copy.setQuizId(source.getQuizId());
+        copy.setQuizTitle(source.getQuizTitle());
+        copy.setStudentId(source.getStudentId());
+        copy.setStudentName(source.getStudentName());
+        copy.setSubmittedAt(source.getSubmittedAt());
+        copy.setScore(source.getScore());
+        copy.setError(source.getError());
+        return copy;
+    }
+
+    record PendingSubmission(SubmissionTicketDTO ticket, Map<Long, List<Long>> answers) {
+    }
+
+    private record GradedSubmission(SubmissionTicketDTO ticket, int score, byte[] answerMasks) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.learningplatform.service.quiz;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Вариант теста для конкретного студента: какие вопросы банка он получает, в каком порядке,
+ * и в каком порядке показаны варианты ответа каждого вопроса.
+ * <p>
+ * Вариант целиком выводится из ключа ответов и пары (quizId, studentId) через детерминированный генератор,
+ * поэтому ничего не хранится: при показе и при проверке он строится заново за O(вопросов + вариантов).
+ * Позиции - это номера вопросов и вариантов в показанном студенту порядке, начиная с нуля.
+ */
+public final class QuizVariant {
+
+    private static final long SEED_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // Индексы вопросов ключа в показанном порядке
+    private final int[] questions;
+    // Для каждого показанного вопроса - порядковые номера вариантов ключа в показанном порядке
+    private final int[][] options;
+    // Позиция вопроса ключа в варианте или -1, если студент его не получил
+    private final int[] positions;
+
+    private QuizVariant(int[] questions, int[][] options, int questionCount) {
+        this.questions = questions;
+        this.options = options;
+        this.positions = new int[questionCount];
+        Arrays.fill(positions, -1);
+        for (int position = 0; position < questions.length; position++) {
+            positions[questions[position]] = position;
+        }
+    }
+
+    public static QuizVariant generate(QuizAnswerKey answerKey, long studentId) {
+        SplittableRandom random = new SplittableRandom(answerKey.getQuizId() * SEED_MULTIPLIER ^ studentId);
+
+        // Частичный Фишер-Йейтс: первые questionsPerAttempt элементов - случайная выборка в случайном порядке
+        int questionCount = answerKey.getQuestionCount();
+        int[] order = new int[questionCount];
+        for (int i = 0; i < questionCount; i++) {
+            order[i] = i;
+        }
+        int selected = answerKey.getQuestionsPerAttempt();
+        for (int i = 0; i < selected; i++) {
+            swap(order, i, i + random.nextInt(questionCount - i));
+        }
+        int[] questions = Arrays.copyOf(order, selected);
+
+        int[][] options = new int[selected][];
+        for (int position = 0; position < selected; position++) {
+            int optionCount = answerKey.getOptionCount(questions[position]);
+            int[] optionOrder = new int[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                optionOrder[i] = i;
+            }
+            for (int i = optionCount - 1; i > 0; i--) {
+                swap(optionOrder, i, random.nextInt(i + 1));
+            }
+            options[position] = optionOrder;
+        }
+        return new QuizVariant(questions, options, questionCount);
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    public int getQuestionCount() {
+        return questions.length;
+    }
+
+    /**
+     * Индекс вопроса ключа, показанного на позиции.
+     */
+    public int getQuestion(int position) {
+        return questions[position];
+    }
+
+    /**
+     * Порядковый номер варианта ключа, показанного на позиции внутри вопроса.
+     */
+    public int getOption(int position, int optionPosition) {
+        return options[position][optionPosition];
+    }
+
+    public boolean contains(int question) {
+        return question >= 0 && question < positions.length && positions[question] >= 0;
+    }
+
+    /**
+     * Отклоняет ответы на вопросы банка, не попавшие в вариант: на них студент не отвечает и баллов не получает.
+     * Неизвестные id вопросов здесь пропускаются - их игнорирует подсчёт баллов.
+     */
+    public void rejectQuestionsOutside(QuizAnswerKey answerKey, Map<Long, List<Long>> answers) {
+        for (Long questionId : answers.keySet()) {
+            if (questionId == null) {
+                continue;
+            }
+            int question = answerKey.indexOf(questionId);
+            if (question >= 0 && !contains(question)) {
+                throw new IllegalArgumentException("Question " + questionId + " is not part of the student's variant");
+            }
+        }
+    }
+
+    /**
+     * Переводит ответ по позициям варианта в ответ по id вопросов и вариантов.
+     */
+    public Map<Long, List<Long>> toAnswers(QuizAnswerKey answerKey, Map<Integer, List<Integer>> positionalAnswers) {
+        Map<Long, List<Long>> answers = new HashMap<>(positionalAnswers.size() * 2);
+        for (Map.Entry<Integer, List<Integer>> entry : positionalAnswers.entrySet()) {
+            Integer position = entry.getKey();
+            if (position == null || position < 0 || position >= questions.length) {
+                throw new IllegalArgumentException("Question position out of range: " + position);
+            }
+            int question = questions[position];
+            int[] optionOrder = options[position];
+
+            List<Long> optionIds = new ArrayList<>();
+            if (entry.getValue() != null) {
+                for (Integer optionPosition : entry.getValue()) {
+                    if (optionPosition == null || optionPosition < 0 || optionPosition >= optionOrder.length) {
+                        throw new IllegalArgumentException("Option position out of range for question "
+                                + position + ": " + optionPosition);
+                    }
+                    optionIds.add(answerKey.getOptionId(question, optionOrder[optionPosition]));
+                }
+            }
+            answers.put(answerKey.getQuestionId(question), optionIds);
+        }
+        return answers;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.learningplatform.service.quiz;
+
+public enum QuizView {
+    // С отметками правильных ответов
+    TEACHER,
+    // Без isCorrect - то, что видит студент во время прохождения
+    STUDENT
+}
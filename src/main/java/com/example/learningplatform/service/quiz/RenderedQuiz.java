@@ -0,0 +1,24 @@
+package com.example.learningplatform.service.quiz;
+
+/**
+ * Готовое к отправке JSON-представление теста и его ETag.
+ */
+public record RenderedQuiz(byte[] body, String etag) {
+
+    // If-None-Match может содержать список тегов, слабые теги W/"..." и "*"
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.learningplatform.service.quiz;
+
+public enum SubmissionTicketStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package com.example.learningplatform.service.search;
+
+import java.util.List;
+
+/**
+ * Поиск курсов по тексту. Возвращает id курсов в порядке релевантности,
+ * карточки курсов собирает {@link com.example.learningplatform.service.CourseService}.
+ */
+public interface CourseSearchEngine {
+
+    List<Long> findCourseIds(String query, long offset, int limit);
+}
@@ -0,0 +1,132 @@
+package com.example.learningplatform.service.search;
+
+import com.example.learningplatform.dto.CourseSuggestionDTO;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.TagRepository;
+import com.example.learningplatform.repository.projection.CourseTitleRow;
+import com.example.learningplatform.service.support.TransactionHooks;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Индекс автодополнения по названиям опубликованных курсов и именам тегов.
+ * <p>
+ * Ключи - нормализованный текст, хранятся в отсортированной {@link ConcurrentSkipListMap}, поэтому все
+ * подсказки с общим префиксом лежат подряд и находятся за O(log n) без обращения к базе.
+ * Индекс строится при старте и дальше обновляется {@link com.example.learningplatform.service.CourseService}
+ * после коммита транзакции.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseSuggestionIndex {
+
+    static final String COURSE = "COURSE";
+    static final String TAG = "TAG";
+
+    // Разделитель отделяет текст от суффикса уникальности и сортируется раньше любого символа текста
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final CourseRepository courseRepository;
+    private final TagRepository tagRepository;
+
+    private final ConcurrentSkipListMap<String, Suggestion> entries = new ConcurrentSkipListMap<>();
+
+    // courseId -> ключ в entries, чтобы снять старое название при переименовании или снятии с публикации
+    private final Map<Long, String> courseKeys = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        entries.clear();
+        courseKeys.clear();
+
+        List<CourseTitleRow> courses = courseRepository.findPublishedTitles();
+        courses.forEach(course -> putCourse(course.id(), course.title()));
+
+        List<String> tagNames = tagRepository.findAllNames();
+        tagNames.forEach(this::putTag);
+
+        log.info("Built course suggestion index with {} courses and {} tags", courses.size(), tagNames.size());
+    }
+
+    public List<CourseSuggestionDTO> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<CourseSuggestionDTO> result = new ArrayList<>(limit);
+        for (Suggestion suggestion : entries.subMap(normalizedPrefix, true,
+                normalizedPrefix + Character.MAX_VALUE, true).values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(suggestion.toDTO());
+        }
+        return result;
+    }
+
+    public void indexCourse(Long courseId, String title, boolean published) {
+        TransactionHooks.afterCommit(() -> {
+            if (published) {
+                putCourse(courseId, title);
+            } else {
+                removeCourseNow(courseId);
+            }
+        });
+    }
+
+    public void removeCourse(Long courseId) {
+        TransactionHooks.afterCommit(() -> removeCourseNow(courseId));
+    }
+
+    public void indexTags(Collection<String> tagNames) {
+        TransactionHooks.afterCommit(() -> tagNames.forEach(this::putTag));
+    }
+
+    // Записи редкие, синхронизируем их, чтобы courseKeys и entries не разошлись; чтение без блокировок
+    private synchronized void putCourse(Long courseId, String title) {
+        String key = normalize(title) + KEY_SEPARATOR + COURSE + courseId;
+        String previousKey = courseKeys.put(courseId, key);
+        if (previousKey != null && !previousKey.equals(key)) {
+            entries.remove(previousKey);
+        }
+        entries.put(key, new Suggestion(title, COURSE, courseId));
+    }
+
+    private synchronized void removeCourseNow(Long courseId) {
+        String key = courseKeys.remove(courseId);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    private void putTag(String name) {
+        entries.put(normalize(name) + KEY_SEPARATOR + TAG, new Suggestion(name, TAG, null));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Suggestion(String text, String type, Long courseId) {
+        CourseSuggestionDTO toDTO() {
+            CourseSuggestionDTO dto = new CourseSuggestionDTO();
+            dto.setText(text);
+            dto.setType(type);
+            dto.setCourseId(courseId);
+            return dto;
+        }
+    }
+}
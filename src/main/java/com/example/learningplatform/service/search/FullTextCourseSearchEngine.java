@@ -0,0 +1,40 @@
+package com.example.learningplatform.service.search;
+
+import com.example.learningplatform.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск PostgreSQL по сгенерированной колонке courses.search_vector (GIN-индекс).
+ * Каждое слово запроса ищется по префиксу, результаты ранжируются через ts_rank.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.full-text", havingValue = "true", matchIfMissing = true)
+public class FullTextCourseSearchEngine implements CourseSearchEngine {
+
+    private final CourseRepository courseRepository;
+
+    @Override
+    public List<Long> findCourseIds(String query, long offset, int limit) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+        return courseRepository.fullTextSearchIds(tsQuery, offset, limit);
+    }
+
+    // "spring bo" -> "spring:* & bo:*"; всё, кроме букв и цифр, отбрасываем, чтобы не сломать синтаксис tsquery
+    static String toPrefixTsQuery(String query) {
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
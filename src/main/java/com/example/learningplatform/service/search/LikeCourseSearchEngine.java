@@ -0,0 +1,27 @@
+package com.example.learningplatform.service.search;
+
+import com.example.learningplatform.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Поиск подстрокой по title/description для баз без полнотекстового поиска (H2 в тестовом профиле).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.full-text", havingValue = "false")
+public class LikeCourseSearchEngine implements CourseSearchEngine {
+
+    private final CourseRepository courseRepository;
+
+    @Override
+    public List<Long> findCourseIds(String query, long offset, int limit) {
+        if (query.isBlank()) {
+            return List.of();
+        }
+        return courseRepository.likeSearchIds(query.trim(), offset, limit);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.learningplatform.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Таймерное колесо для большого числа дедлайнов: одна нить-тикер и кольцо корзин вместо отдельной
+ * задачи планировщика на каждый дедлайн.
+ * <p>
+ * Запись попадает в корзину {@code тик дедлайна % размер колеса}, а дедлайны дальше одного оборота
+ * ждут нужного числа оборотов. Постановка и отмена - O(1) и без блокировок: новые записи забирает
+ * в корзины сама нить-тикер, отменённые выбрасываются при обходе корзины. Сработавшие за тик записи
+ * отдаются обработчику одной пачкой в нити-тикере, поэтому обработчик не должен надолго блокироваться.
+ */
+@Slf4j
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> expiryHandler;
+    private final Thread worker;
+
+    private volatile boolean running;
+    private long startMillis;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(String name, Duration tickDuration, int wheelSize, Consumer<List<T>> expiryHandler) {
+        if (tickDuration.toMillis() < 1) {
+            throw new IllegalArgumentException("Tick duration must be at least 1ms");
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickDuration.toMillis();
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.expiryHandler = expiryHandler;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startMillis = System.currentTimeMillis();
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * Останавливает тикер. Несработавшие записи остаются в памяти: владелец восстанавливает их
+     * из своего хранилища при следующем запуске.
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Ставит запись на срабатывание не раньше дедлайна; точность - один тик.
+     * Уже прошедший дедлайн сработает на ближайшем тике.
+     */
+    public Timeout<T> schedule(T item, Instant deadline) {
+        Timeout<T> timeout = new Timeout<>(item, deadline.toEpochMilli());
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = startMillis + (tick + 1) * tickMillis;
+            long sleepMillis = tickDeadline - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            transferPending();
+            List<T> expired = expireBucket(buckets[(int) (tick & mask)]);
+            tick++;
+
+            if (!expired.isEmpty()) {
+                try {
+                    expiryHandler.accept(expired);
+                } catch (RuntimeException e) {
+                    log.error("Timing wheel {} failed to handle {} expired entries", worker.getName(), expired.size(), e);
+                }
+            }
+        }
+    }
+
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.cancelled) {
+                continue;
+            }
+            // Дедлайн в прошлом или в текущем тике попадает в текущую корзину и срабатывает сразу
+            long deadlineTick = Math.max((timeout.deadlineMillis - startMillis) / tickMillis, tick);
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private List<T> expireBucket(ArrayDeque<Timeout<T>> bucket) {
+        List<T> expired = new ArrayList<>();
+        for (int i = bucket.size(); i > 0; i--) {
+            Timeout<T> timeout = bucket.poll();
+            if (timeout.cancelled) {
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+            } else {
+                expired.add(timeout.item);
+            }
+        }
+        return expired;
+    }
+
+    public static final class Timeout<T> {
+        private final T item;
+        private final long deadlineMillis;
+        // Меняется только нитью-тикером
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Timeout(T item, long deadlineMillis) {
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.AssignmentDTO;
+import com.example.learningplatform.entity.Assignment;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Lesson;
+import com.example.learningplatform.entity.Module;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.*;
+import com.example.learningplatform.service.assignment.AssignmentDeadlineScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без @Transactional: колесо закрывает задания в своей нити и должно видеть закоммиченные строки
+@SpringBootTest(properties = {
+        "app.assignments.deadlines.enabled=true",
+        "app.assignments.deadlines.tick=20ms",
+        "app.assignments.deadlines.remind-before=1s"
+})
+@ActiveProfiles("test")
+class AssignmentDeadlineIntegrationTest {
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private AssignmentDeadlineScheduler assignmentDeadlineScheduler;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private Lesson lesson;
+
+    @BeforeEach
+    void setUp() {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        teacher = new User();
+        teacher.setName("Deadline Teacher");
+        teacher.setEmail("deadline.teacher." + runId + "@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        student = new User();
+        student.setName("Deadline Student");
+        student.setEmail("deadline.student." + runId + "@example.com");
+        student.setRole(UserRole.STUDENT);
+        student = userRepository.save(student);
+
+        course = new Course();
+        course.setTitle("Deadline Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        Module module = new Module();
+        module.setTitle("Deadline Module");
+        module.setOrderIndex(1);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        lesson = new Lesson();
+        lesson.setTitle("Deadline Lesson");
+        lesson.setOrderIndex(1);
+        lesson.setModule(module);
+        lesson = lessonRepository.save(lesson);
+
+        enrollmentService.enrollStudent(student.getId(), course.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM submissions WHERE student_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM assignments WHERE lesson_id = ?", lesson.getId());
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", course.getId());
+        lessonRepository.deleteById(lesson.getId());
+        jdbcTemplate.update("DELETE FROM modules WHERE course_id = ?", course.getId());
+        courseRepository.deleteById(course.getId());
+        userRepository.deleteById(student.getId());
+        userRepository.deleteById(teacher.getId());
+    }
+
+    @Test
+    void assignment_ShouldBeRemindedAndClosedAtDueDate() throws InterruptedException {
+        // Given
+        AssignmentDTO created = createAssignment(LocalDateTime.now().plus(Duration.ofMillis(1500)));
+        assertNull(created.getClosedAt());
+        assertEquals(List.of(student.getId()), assignmentRepository.findPendingStudentIds(created.getId()));
+
+        // When
+        Assignment closed = awaitClosed(created.getId(), Duration.ofSeconds(10));
+
+        // Then
+        assertNotNull(closed.getReminderSentAt());
+        assertFalse(closed.getClosedAt().isBefore(created.getDueDate()));
+        assertThrows(IllegalStateException.class,
+                () -> assignmentService.submitAssignment(created.getId(), student.getId(), "Too late"));
+    }
+
+    @Test
+    void overdueAssignment_ShouldBeClosedWithoutReminder() throws InterruptedException {
+        // Given
+        AssignmentDTO created = createAssignment(LocalDateTime.now().minusMinutes(5));
+
+        // When
+        Assignment closed = awaitClosed(created.getId(), Duration.ofSeconds(10));
+
+        // Then
+        assertNull(closed.getReminderSentAt());
+    }
+
+    @Test
+    void assignment_ShouldStayOpenUntilItsDueDateEntersTheWindow() throws InterruptedException {
+        // Given
+        AssignmentDTO created = createAssignment(LocalDateTime.now().plusDays(7));
+
+        // When
+        assignmentDeadlineScheduler.loadWindow();
+        Thread.sleep(200);
+
+        // Then
+        Assignment assignment = assignmentRepository.findById(created.getId()).orElseThrow();
+        assertNull(assignment.getClosedAt());
+        assertNull(assignment.getReminderSentAt());
+        assertNotNull(assignmentService.submitAssignment(created.getId(), student.getId(), "On time").getId());
+        assertTrue(assignmentRepository.findPendingStudentIds(created.getId()).isEmpty());
+    }
+
+    private AssignmentDTO createAssignment(LocalDateTime dueDate) {
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Deadline Assignment");
+        assignment.setDueDate(dueDate);
+        return assignmentService.createAssignment(assignment, lesson.getId());
+    }
+
+    private Assignment awaitClosed(Long assignmentId, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Assignment assignment = assignmentRepository.findById(assignmentId).orElseThrow();
+            if (assignment.getClosedAt() != null) {
+                return assignment;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Assignment " + assignmentId + " was not closed within " + timeout);
+    }
+}
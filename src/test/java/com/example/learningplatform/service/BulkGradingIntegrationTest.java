@@ -0,0 +1,213 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.BulkGradeRequest;
+import com.example.learningplatform.dto.BulkGradeRequest.GradeEntry;
+import com.example.learningplatform.dto.BulkGradeResponseDTO;
+import com.example.learningplatform.dto.BulkGradeResultDTO;
+import com.example.learningplatform.dto.BulkGradeResultDTO.Outcome;
+import com.example.learningplatform.entity.Assignment;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Lesson;
+import com.example.learningplatform.entity.Module;
+import com.example.learningplatform.entity.Submission;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BulkGradingIntegrationTest {
+
+    private static final int COHORT_SIZE = 100;
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Assignment assignment;
+    private Assignment otherAssignment;
+    private List<Long> submissionIds;
+    private Long otherSubmissionId;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Grading Teacher");
+        teacher.setEmail("grading.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        Course course = new Course();
+        course.setTitle("Grading Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        Module module = new Module();
+        module.setTitle("Grading Module");
+        module.setOrderIndex(1);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Grading Lesson");
+        lesson.setOrderIndex(1);
+        lesson.setModule(module);
+        lesson = lessonRepository.save(lesson);
+
+        assignment = createAssignment(lesson, 10);
+        otherAssignment = createAssignment(lesson, 100);
+
+        submissionIds = new ArrayList<>();
+        for (int i = 0; i < COHORT_SIZE; i++) {
+            User student = new User();
+            student.setName("Grading Student " + i);
+            student.setEmail("grading.student" + i + "@example.com");
+            student.setRole(UserRole.STUDENT);
+            student = userRepository.save(student);
+            submissionIds.add(createSubmission(assignment, student).getId());
+            if (i == 0) {
+                otherSubmissionId = createSubmission(otherAssignment, student).getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void gradeSubmissions_ShouldGradeBatchWithoutLoadingSubmissions() {
+        // Given
+        List<GradeEntry> grades = new ArrayList<>();
+        for (int i = 0; i < COHORT_SIZE; i++) {
+            grades.add(grade(submissionIds.get(i), i % 11, "Feedback " + i));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        BulkGradeResponseDTO response = assignmentService.gradeSubmissions(assignment.getId(), request(grades));
+
+        // Then
+        assertEquals(COHORT_SIZE, response.getGraded());
+        assertEquals(0, response.getSkipped());
+        assertEquals(10, response.getMaxScore());
+        // maxScore и принадлежность решений - по одному запросу, сама запись идёт через JDBC batch
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        assertEquals(7, jdbcTemplate.queryForObject(
+                "SELECT score FROM submissions WHERE id = ?", Integer.class, submissionIds.get(7)));
+        assertEquals("Feedback 7", jdbcTemplate.queryForObject(
+                "SELECT feedback FROM submissions WHERE id = ?", String.class, submissionIds.get(7)));
+    }
+
+    @Test
+    void gradeSubmissions_ShouldReportOutcomePerRowInRequestOrder() {
+        // Given
+        List<GradeEntry> grades = List.of(
+                grade(submissionIds.get(0), 10, "Perfect"),
+                grade(submissionIds.get(1), 11, "Too much"),
+                grade(submissionIds.get(2), -1, null),
+                grade(submissionIds.get(0), 5, "Again"),
+                grade(otherSubmissionId, 5, "Wrong assignment"),
+                grade(Long.MAX_VALUE, 5, null),
+                grade(null, 5, null),
+                grade(submissionIds.get(3), null, null));
+
+        // When
+        BulkGradeResponseDTO response = assignmentService.gradeSubmissions(assignment.getId(), request(grades));
+
+        // Then
+        assertEquals(List.of(Outcome.GRADED, Outcome.SCORE_OUT_OF_RANGE, Outcome.SCORE_OUT_OF_RANGE,
+                        Outcome.DUPLICATE_IN_REQUEST, Outcome.SUBMISSION_NOT_FOUND, Outcome.SUBMISSION_NOT_FOUND,
+                        Outcome.SUBMISSION_NOT_FOUND, Outcome.SCORE_OUT_OF_RANGE),
+                response.getResults().stream().map(BulkGradeResultDTO::getOutcome).toList());
+        assertEquals(1, response.getGraded());
+        assertEquals(7, response.getSkipped());
+
+        assertEquals(10, submissionRepository.findById(submissionIds.get(0)).orElseThrow().getScore());
+        assertNull(submissionRepository.findById(submissionIds.get(1)).orElseThrow().getScore());
+        assertNull(submissionRepository.findById(otherSubmissionId).orElseThrow().getScore());
+    }
+
+    @Test
+    void gradeSubmissions_ShouldRejectUnknownAssignment() {
+        BulkGradeRequest request = request(List.of(grade(submissionIds.get(0), 5, null)));
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> assignmentService.gradeSubmissions(Long.MAX_VALUE, request));
+    }
+
+    private Assignment createAssignment(Lesson lesson, int maxScore) {
+        Assignment created = new Assignment();
+        created.setTitle("Graded Assignment " + maxScore);
+        created.setMaxScore(maxScore);
+        created.setLesson(lesson);
+        return assignmentRepository.save(created);
+    }
+
+    private Submission createSubmission(Assignment target, User student) {
+        Submission submission = new Submission();
+        submission.setAssignment(target);
+        submission.setStudent(student);
+        return submissionRepository.save(submission);
+    }
+
+    private static GradeEntry grade(Long submissionId, Integer score, String feedback) {
+        GradeEntry grade = new GradeEntry();
+        grade.setSubmissionId(submissionId);
+        grade.setScore(score);
+        grade.setFeedback(feedback);
+        return grade;
+    }
+
+    private static BulkGradeRequest request(List<GradeEntry> grades) {
+        BulkGradeRequest request = new BulkGradeRequest();
+        request.setGrades(grades);
+        return request;
+    }
+}
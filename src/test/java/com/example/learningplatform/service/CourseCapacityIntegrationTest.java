@@ -0,0 +1,253 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.CreateCourseRequest;
+import com.example.learningplatform.dto.EnrollmentDTO;
+import com.example.learningplatform.dto.WaitlistEntryDTO;
+import com.example.learningplatform.entity.Category;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.CategoryRepository;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.course.CourseCounterReconciler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без @Transactional: записи идут из параллельных нитей, каждая в своей транзакции
+@SpringBootTest
+@ActiveProfiles("test")
+class CourseCapacityIntegrationTest {
+
+    private static final int CAPACITY = 50;
+    private static final int CONTENDERS = 300;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseCounterReconciler courseCounterReconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String runId;
+    private Category category;
+    private User teacher;
+    private Course course;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        runId = UUID.randomUUID().toString().substring(0, 8);
+
+        category = new Category();
+        category.setName("Capacity " + runId);
+        category = categoryRepository.save(category);
+
+        teacher = createUser("teacher", UserRole.TEACHER);
+
+        course = new Course();
+        course.setTitle("Capacity Course " + runId);
+        course.setCategory(category);
+        course.setTeacher(teacher);
+        course.setCapacity(CAPACITY);
+        course = courseRepository.save(course);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course_waitlist WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", course.getId());
+        courseRepository.deleteById(course.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    void enrollStudent_ShouldNeverOversellSeatsUnderContention() throws InterruptedException {
+        // Given
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            studentIds.add(createUser("student" + i, UserRole.STUDENT).getId());
+        }
+
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+
+        // When
+        for (Long studentId : studentIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    enrollmentService.enrollStudent(studentId, course.getId());
+                    enrolled.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        // Then
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(CAPACITY, enrolled.get());
+        assertEquals(CONTENDERS - CAPACITY, rejected.get());
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollments WHERE course_id = ?", Integer.class, course.getId()));
+        assertEquals(CAPACITY, courseService.getCourseById(course.getId()).getEnrolledCount());
+    }
+
+    @Test
+    void reconcile_ShouldNotLoseIncrementsOfConcurrentEnrollments() throws InterruptedException {
+        // Given
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            studentIds.add(createUser("student" + i, UserRole.STUDENT).getId());
+        }
+
+        AtomicInteger enrolled = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONTENDERS);
+
+        // Сверка крутится всё время записи; расхождение в рейтинге заставляет её каждый раз пересчитывать курс
+        Thread reconciler = new Thread(() -> {
+            try {
+                start.await();
+                while (running.get()) {
+                    jdbcTemplate.update("UPDATE courses SET rating_count = rating_count + 1 WHERE id = ?", course.getId());
+                    courseCounterReconciler.reconcile();
+                }
+            } catch (Throwable e) {
+                unexpected.add(e);
+            }
+        });
+        reconciler.start();
+
+        // When
+        for (Long studentId : studentIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    enrollmentService.enrollStudent(studentId, course.getId());
+                    enrolled.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Мест нет
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        running.set(false);
+        reconciler.join(TimeUnit.MINUTES.toMillis(1));
+
+        // Then
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+        assertEquals(CAPACITY, enrolled.get());
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollments WHERE course_id = ?", Integer.class, course.getId()));
+        assertEquals(CAPACITY, courseService.getCourseById(course.getId()).getEnrolledCount());
+    }
+
+    @Test
+    void waitlist_ShouldBePromotedInOrderWhenSeatsFreeUp() {
+        // Given
+        setCapacity(1);
+        Long first = createUser("first", UserRole.STUDENT).getId();
+        Long second = createUser("second", UserRole.STUDENT).getId();
+        Long third = createUser("third", UserRole.STUDENT).getId();
+        enrollmentService.enrollStudent(first, course.getId());
+
+        assertThrows(IllegalStateException.class, () -> enrollmentService.enrollStudent(second, course.getId()));
+        WaitlistEntryDTO secondEntry = enrollmentService.joinWaitlist(second, course.getId());
+        WaitlistEntryDTO thirdEntry = enrollmentService.joinWaitlist(third, course.getId());
+        assertEquals(1, secondEntry.getPosition());
+        assertEquals(2, thirdEntry.getPosition());
+
+        // When
+        enrollmentService.unenrollStudent(first, course.getId());
+
+        // Then
+        assertEquals(List.of(second), enrolledStudentIds());
+        List<WaitlistEntryDTO> waitlist = enrollmentService.getWaitlist(course.getId());
+        assertEquals(1, waitlist.size());
+        assertEquals(third, waitlist.get(0).getStudentId());
+        assertEquals(1, waitlist.get(0).getPosition());
+
+        // When - лимит вырос
+        setCapacity(3);
+
+        // Then
+        assertEquals(List.of(second, third), enrolledStudentIds());
+        assertTrue(enrollmentService.getWaitlist(course.getId()).isEmpty());
+        assertThrows(IllegalStateException.class, () -> enrollmentService.joinWaitlist(first, course.getId()));
+    }
+
+    private void setCapacity(int capacity) {
+        CreateCourseRequest request = new CreateCourseRequest();
+        request.setTitle(course.getTitle());
+        request.setCategoryId(category.getId());
+        request.setTeacherId(teacher.getId());
+        request.setCapacity(capacity);
+        courseService.updateCourse(course.getId(), request);
+    }
+
+    private List<Long> enrolledStudentIds() {
+        return enrollmentService.getEnrollmentsByCourse(course.getId()).stream()
+                .map(EnrollmentDTO::getStudentId)
+                .sorted()
+                .toList();
+    }
+
+    private User createUser(String name, UserRole role) {
+        User user = new User();
+        user.setName("Capacity " + name);
+        user.setEmail("capacity." + name + "." + runId + "@example.com");
+        user.setRole(role);
+        user = userRepository.save(user);
+        userIds.add(user.getId());
+        return user;
+    }
+}
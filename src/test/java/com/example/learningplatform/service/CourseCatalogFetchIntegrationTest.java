@@ -0,0 +1,114 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.CourseSummaryDTO;
+import com.example.learningplatform.dto.CursorPageDTO;
+import com.example.learningplatform.entity.Category;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Tag;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.CategoryRepository;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.TagRepository;
+import com.example.learningplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.pagination.max-page-size=500")
+@ActiveProfiles("test")
+@Transactional
+class CourseCatalogFetchIntegrationTest {
+
+    private static final int COURSE_COUNT = 500;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        Tag javaTag = new Tag();
+        javaTag.setName("Fetch Java");
+        javaTag = tagRepository.save(javaTag);
+
+        Tag springTag = new Tag();
+        springTag.setName("Fetch Spring");
+        springTag = tagRepository.save(springTag);
+
+        category = new Category();
+        category.setName("Fetch Plan Category");
+        category = categoryRepository.save(category);
+
+        // Каждый курс со своим преподавателем, чтобы ленивые загрузки не попадали в кэш сессии
+        for (int i = 0; i < COURSE_COUNT; i++) {
+            User teacher = new User();
+            teacher.setName("Teacher " + i);
+            teacher.setEmail("fetch.teacher" + i + "@example.com");
+            teacher.setRole(UserRole.TEACHER);
+            teacher = userRepository.save(teacher);
+
+            Course course = new Course();
+            course.setTitle("Fetch Course " + i);
+            course.setCategory(category);
+            course.setTeacher(teacher);
+            course.setTags(Set.of(javaTag, springTag));
+            courseRepository.save(course);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getCoursesByCategory_ShouldUseFixedNumberOfStatements() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        CursorPageDTO<CourseSummaryDTO> page = courseService.getCoursesByCategory(category.getId(), null, COURSE_COUNT);
+
+        // Then
+        assertEquals(COURSE_COUNT, page.getItems().size());
+        page.getItems().forEach(course -> {
+            assertNotNull(course.getTeacherName());
+            assertEquals("Fetch Plan Category", course.getCategoryName());
+            assertEquals(2, course.getTags().size());
+        });
+        // Проекция страницы курсов + теги всей страницы
+        assertEquals(2, statistics.getPrepareStatementCount());
+        // Проекции не гидратируют сущности
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.BulkEnrollmentRequest;
+import com.example.learningplatform.dto.CourseDTO;
+import com.example.learningplatform.dto.CourseReviewDTO;
+import com.example.learningplatform.dto.CourseSummaryDTO;
+import com.example.learningplatform.dto.CreateCourseReviewRequest;
+import com.example.learningplatform.dto.EnrollmentDTO;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.EnrollmentStatus;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.course.CourseCounterReconciler;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class CourseCounterIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseReviewService courseReviewService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseCounterReconciler courseCounterReconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Counter Teacher");
+        teacher.setEmail("counter.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Counter Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        studentIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User student = new User();
+            student.setName("Counter Student " + i);
+            student.setEmail("counter.student" + i + "@example.com");
+            student.setRole(UserRole.STUDENT);
+            studentIds.add(userRepository.save(student).getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void enrollmentCounters_ShouldFollowEnrollUnenrollAndStatusChanges() {
+        // Given
+        EnrollmentDTO first = enrollmentService.enrollStudent(studentIds.get(0), course.getId());
+        BulkEnrollmentRequest bulk = new BulkEnrollmentRequest();
+        bulk.setCourseId(course.getId());
+        bulk.setStudentIds(studentIds.subList(1, 4));
+        enrollmentService.bulkEnroll(bulk);
+
+        // When
+        enrollmentService.updateEnrollmentStatus(first.getId(), EnrollmentStatus.COMPLETED);
+        enrollmentService.unenrollStudent(studentIds.get(0), course.getId());
+        enrollmentService.unenrollStudent(studentIds.get(1), course.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        CourseDTO dto = courseService.getCourseById(course.getId());
+        assertEquals(2, dto.getEnrolledCount());
+        assertEquals(2, dto.getActiveCount());
+        assertFalse(courseRepository.findIdsWithDriftedCounters().contains(course.getId()));
+    }
+
+    @Test
+    void ratingCounters_ShouldFollowReviewChangesAndShowOnCourseCard() {
+        // Given
+        CourseReviewDTO first = courseReviewService.createReview(studentIds.get(0), review(5));
+        CourseReviewDTO second = courseReviewService.createReview(studentIds.get(1), review(4));
+        courseReviewService.createReview(studentIds.get(2), review(1));
+
+        // When
+        courseReviewService.updateReview(second.getId(), review(2));
+        courseReviewService.deleteReview(first.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        CourseSummaryDTO summary = courseService.getAllCourses(null, 100).getItems().stream()
+                .filter(item -> item.getId().equals(course.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, summary.getRatingCount());
+        assertEquals(1.5, summary.getAverageRating(), 1e-9);
+        assertEquals(courseReviewService.getAverageRatingByCourse(course.getId()), summary.getAverageRating(), 1e-9);
+        assertFalse(courseRepository.findIdsWithDriftedCounters().contains(course.getId()));
+    }
+
+    @Test
+    void reconcile_ShouldRepairCountersChangedBehindServices() {
+        // Given
+        enrollmentService.enrollStudent(studentIds.get(0), course.getId());
+        courseReviewService.createReview(studentIds.get(0), review(3));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE courses SET enrolled_count = 42, active_count = 0, rating_sum = 7, rating_count = 9 " +
+                "WHERE id = ?", course.getId());
+        entityManager.clear();
+
+        // When
+        int repaired = courseCounterReconciler.reconcile();
+
+        // Then
+        assertTrue(repaired >= 1);
+        assertFalse(courseRepository.findIdsWithDriftedCounters().contains(course.getId()));
+        CourseDTO dto = courseService.getCourseById(course.getId());
+        assertEquals(1, dto.getEnrolledCount());
+        assertEquals(1, dto.getActiveCount());
+        assertEquals(1, dto.getRatingCount());
+        assertEquals(3.0, dto.getAverageRating(), 1e-9);
+    }
+
+    @Test
+    void newCourse_ShouldHaveZeroCountersAndNoAverage() {
+        CourseDTO dto = courseService.getCourseById(course.getId());
+
+        assertEquals(0, dto.getEnrolledCount());
+        assertEquals(0, dto.getRatingCount());
+        assertNull(dto.getAverageRating());
+    }
+
+    private CreateCourseReviewRequest review(int rating) {
+        CreateCourseReviewRequest request = new CreateCourseReviewRequest();
+        request.setCourseId(course.getId());
+        request.setRating(rating);
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.learningplatform.service;
 
+import com.example.learningplatform.dto.CourseSummaryDTO;
 import com.example.learningplatform.dto.CreateCourseRequest;
 import com.example.learningplatform.entity.Category;
 import com.example.learningplatform.entity.User;
@@ -119,10 +120,43 @@ class CourseServiceIntegrationTest {
         courseService.createCourse(request2);
 
         // When - ищем по уникальному префиксу
-        var foundCourses = courseService.searchCourses(uniquePrefix + " Java");
+        var foundCourses = courseService.searchCourses(uniquePrefix + " Java", null, null).getItems();
 
         // Then
         assertEquals(1, foundCourses.size());
         assertEquals(uniquePrefix + " Java Advanced", foundCourses.get(0).getTitle());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCoursesByCategory_ShouldPageThroughCoursesWithCursor() {
+        // Given
+        for (int i = 1; i <= 5; i++) {
+            CreateCourseRequest request = new CreateCourseRequest();
+            request.setTitle("Paged Course " + i);
+            request.setCategoryId(category.getId());
+            request.setTeacherId(teacher.getId());
+            courseService.createCourse(request);
+        }
+
+        // When
+        var firstPage = courseService.getCoursesByCategory(category.getId(), null, 2);
+        var secondPage = courseService.getCoursesByCategory(category.getId(), firstPage.getNextCursor(), 2);
+        var lastPage = courseService.getCoursesByCategory(category.getId(), secondPage.getNextCursor(), 2);
+
+        // Then
+        assertEquals(List.of("Paged Course 1", "Paged Course 2"),
+                firstPage.getItems().stream().map(CourseSummaryDTO::getTitle).toList());
+        assertTrue(firstPage.isHasNext());
+        assertEquals(List.of("Paged Course 3", "Paged Course 4"),
+                secondPage.getItems().stream().map(CourseSummaryDTO::getTitle).toList());
+        assertEquals(List.of("Paged Course 5"),
+                lastPage.getItems().stream().map(CourseSummaryDTO::getTitle).toList());
+        assertFalse(lastPage.isHasNext());
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getAllCourses_WithInvalidPageSize_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> courseService.getAllCourses(null, 0));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.BulkEnrollmentRequest;
+import com.example.learningplatform.dto.BulkEnrollmentResponseDTO;
+import com.example.learningplatform.dto.BulkEnrollmentResultDTO;
+import com.example.learningplatform.dto.BulkEnrollmentResultDTO.Outcome;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.EnrollmentStatus;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.EnrollmentRepository;
+import com.example.learningplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class EnrollmentBulkIntegrationTest {
+
+    private static final int COHORT_SIZE = 120;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Bulk Teacher");
+        teacher.setEmail("bulk.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Bulk Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        studentIds = new ArrayList<>();
+        for (int i = 0; i < COHORT_SIZE; i++) {
+            User student = new User();
+            student.setName("Bulk Student " + i);
+            student.setEmail("bulk.student" + i + "@example.com");
+            student.setRole(UserRole.STUDENT);
+            studentIds.add(userRepository.save(student).getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void bulkEnroll_ShouldEnrollCohortWithConstantNumberOfQueries() {
+        // Given
+        Long preEnrolledId = enrollmentService.enrollStudent(studentIds.get(0), course.getId()).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> requested = new ArrayList<>(studentIds);
+        requested.add(studentIds.get(1));
+        requested.add(Long.MAX_VALUE);
+
+        BulkEnrollmentRequest request = new BulkEnrollmentRequest();
+        request.setCourseId(course.getId());
+        request.setStudentIds(requested);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        BulkEnrollmentResponseDTO response = enrollmentService.bulkEnroll(request);
+
+        // Then
+        // Курс, существующие студенты, уже существующие записи, счётчики курса, id созданных;
+        // вставка идёт JDBC-пачками мимо Hibernate
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(COHORT_SIZE - 1, response.getEnrolled());
+        assertEquals(3, response.getSkipped());
+        assertEquals(requested.size(), response.getResults().size());
+
+        BulkEnrollmentResultDTO first = response.getResults().get(0);
+        assertEquals(Outcome.ALREADY_ENROLLED, first.getOutcome());
+        assertEquals(preEnrolledId, first.getEnrollmentId());
+        assertEquals(Outcome.ENROLLED, response.getResults().get(1).getOutcome());
+        assertNotNull(response.getResults().get(1).getEnrollmentId());
+        assertEquals(Outcome.DUPLICATE_IN_REQUEST, response.getResults().get(COHORT_SIZE).getOutcome());
+        assertEquals(Outcome.STUDENT_NOT_FOUND, response.getResults().get(COHORT_SIZE + 1).getOutcome());
+
+        assertEquals(COHORT_SIZE, enrollmentRepository.findByCourseId(course.getId()).size());
+        assertEquals(EnrollmentStatus.ACTIVE,
+                enrollmentRepository.findByStudentIdAndCourseId(studentIds.get(5), course.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void bulkEnroll_ShouldEnrollStudentIntoSeveralCourses() {
+        // Given
+        BulkEnrollmentRequest request = new BulkEnrollmentRequest();
+        request.setStudentId(studentIds.get(0));
+        request.setCourseIds(List.of(course.getId(), Long.MAX_VALUE));
+
+        // When
+        BulkEnrollmentResponseDTO response = enrollmentService.bulkEnroll(request);
+
+        // Then
+        assertEquals(1, response.getEnrolled());
+        assertEquals(Outcome.ENROLLED, response.getResults().get(0).getOutcome());
+        assertEquals(Outcome.COURSE_NOT_FOUND, response.getResults().get(1).getOutcome());
+        assertTrue(enrollmentRepository.existsByStudentIdAndCourseId(studentIds.get(0), course.getId()));
+    }
+
+    @Test
+    void bulkEnroll_ShouldRejectAmbiguousOrUnknownAnchor() {
+        BulkEnrollmentRequest ambiguous = new BulkEnrollmentRequest();
+        ambiguous.setCourseId(course.getId());
+        ambiguous.setStudentIds(studentIds);
+        ambiguous.setStudentId(studentIds.get(0));
+        ambiguous.setCourseIds(List.of(course.getId()));
+        assertThrows(IllegalArgumentException.class, () -> enrollmentService.bulkEnroll(ambiguous));
+
+        BulkEnrollmentRequest unknownCourse = new BulkEnrollmentRequest();
+        unknownCourse.setCourseId(Long.MAX_VALUE);
+        unknownCourse.setStudentIds(studentIds);
+        assertThrows(ResourceNotFoundException.class, () -> enrollmentService.bulkEnroll(unknownCourse));
+    }
+}
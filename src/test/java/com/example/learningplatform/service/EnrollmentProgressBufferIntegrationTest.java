@@ -0,0 +1,115 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.EnrollmentDTO;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.EnrollmentRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.enrollment.EnrollmentProgressBuffer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Интервал сброса большой: в тесте буфер сбрасывается только явно
+@SpringBootTest(properties = {
+        "app.enrollment.progress-buffer.enabled=true",
+        "app.enrollment.progress-buffer.flush-interval=1h"
+})
+@ActiveProfiles("test")
+@Transactional
+class EnrollmentProgressBufferIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentProgressBuffer progressBuffer;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+    private Long firstEnrollmentId;
+    private Long secondEnrollmentId;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Progress Teacher");
+        teacher.setEmail("progress.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Progress Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        firstEnrollmentId = enrollmentService.enrollStudent(createStudent("first"), course.getId()).getId();
+        secondEnrollmentId = enrollmentService.enrollStudent(createStudent("second"), course.getId()).getId();
+    }
+
+    @Test
+    void updateProgress_ShouldBufferWritesAndServeReadsFromBuffer() {
+        // When
+        enrollmentService.updateProgress(firstEnrollmentId, 30);
+        EnrollmentDTO afterLowerUpdate = enrollmentService.updateProgress(firstEnrollmentId, 80);
+        enrollmentService.updateProgress(firstEnrollmentId, 50);
+        enrollmentService.updateProgress(secondEnrollmentId, 40);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then: в базе ещё старые значения, чтение видит буфер
+        assertEquals(80, afterLowerUpdate.getProgress());
+        assertEquals(0, enrollmentRepository.findById(firstEnrollmentId).orElseThrow().getProgress());
+        Map<Long, Integer> progress = enrollmentService.getEnrollmentsByCourse(course.getId()).stream()
+                .collect(Collectors.toMap(EnrollmentDTO::getId, EnrollmentDTO::getProgress));
+        assertEquals(Map.of(firstEnrollmentId, 80, secondEnrollmentId, 40), progress);
+
+        // When
+        assertEquals(2, progressBuffer.flush());
+        entityManager.clear();
+
+        // Then
+        assertEquals(80, enrollmentRepository.findById(firstEnrollmentId).orElseThrow().getProgress());
+        assertEquals(40, enrollmentRepository.findById(secondEnrollmentId).orElseThrow().getProgress());
+        assertEquals(0, progressBuffer.getPendingCount());
+    }
+
+    @Test
+    void updateProgress_ShouldStillValidateRangeAndEnrollment() {
+        assertThrows(IllegalArgumentException.class, () -> enrollmentService.updateProgress(firstEnrollmentId, 101));
+        assertThrows(ResourceNotFoundException.class,
+                () -> enrollmentService.updateProgress(Long.MAX_VALUE, 10));
+        assertFalse(progressBuffer.isPending(Long.MAX_VALUE));
+    }
+
+    private Long createStudent(String name) {
+        User student = new User();
+        student.setName("Progress Student " + name);
+        student.setEmail("progress." + name + "@example.com");
+        student.setRole(UserRole.STUDENT);
+        return userRepository.save(student).getId();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.QuizAttemptDTO;
+import com.example.learningplatform.dto.QuizSubmissionDTO;
+import com.example.learningplatform.entity.AnswerOption;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Question;
+import com.example.learningplatform.entity.Quiz;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.QuestionType;
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.*;
+import com.example.learningplatform.service.quiz.QuizAttemptRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без @Transactional: колесо закрывает попытки в своей нити и должно видеть закоммиченные строки
+@SpringBootTest(properties = {
+        "app.quiz.attempts.tick=20ms",
+        "app.quiz.attempts.grace=500ms"
+})
+@ActiveProfiles("test")
+class QuizAttemptIntegrationTest {
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizAttemptRegistry quizAttemptRegistry;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerOptionRepository answerOptionRepository;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    private User teacher;
+    private User student;
+    private Course course;
+    private Quiz quiz;
+    private Question question;
+    private AnswerOption correctOption;
+
+    @BeforeEach
+    void setUp() {
+        teacher = new User();
+        teacher.setName("Attempt Teacher");
+        teacher.setEmail("attempt.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        student = new User();
+        student.setName("Attempt Student");
+        student.setEmail("attempt.student@example.com");
+        student.setRole(UserRole.STUDENT);
+        student = userRepository.save(student);
+
+        course = new Course();
+        course.setTitle("Attempt Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        quiz = new Quiz();
+        quiz.setTitle("Timed Quiz");
+        quiz.setTimeLimit(1);
+        quiz.setCourse(course);
+        quiz = quizRepository.save(quiz);
+
+        question = new Question();
+        question.setText("Is the clock ticking?");
+        question.setType(QuestionType.SINGLE_CHOICE);
+        question.setPoints(10);
+        question.setQuiz(quiz);
+        question = questionRepository.save(question);
+
+        correctOption = new AnswerOption();
+        correctOption.setText("Yes");
+        correctOption.setIsCorrect(true);
+        correctOption.setQuestion(question);
+        correctOption = answerOptionRepository.save(correctOption);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Транзакции нет, поэтому за собой убираем явно
+        quizSubmissionRepository.deleteAll(quizSubmissionRepository.findByQuizId(quiz.getId()));
+        quizAttemptRepository.deleteAll();
+        answerOptionRepository.delete(correctOption);
+        questionRepository.delete(question);
+        quizRepository.delete(quiz);
+        courseRepository.delete(course);
+        userRepository.deleteAll(List.of(student, teacher));
+    }
+
+    @Test
+    void submitWithinTimeLimit_ShouldCloseAttemptAsSubmitted() {
+        // Given
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+        assertEquals(QuizAttemptStatus.IN_PROGRESS, attempt.getStatus());
+        assertNotNull(attempt.getExpiresAt());
+        assertNotNull(quizAttemptRegistry.get(attempt.getId()));
+
+        // Повторный старт продолжает ту же попытку
+        assertEquals(attempt.getId(), quizService.startAttempt(quiz.getId(), student.getId()).getId());
+
+        // When
+        QuizSubmissionDTO submission = quizService.submitQuizWithDetails(quiz.getId(), student.getId(),
+                attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId())));
+
+        // Then
+        assertEquals(10, submission.getScore());
+        assertEquals(QuizAttemptStatus.SUBMITTED, quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+        assertNull(quizAttemptRegistry.get(attempt.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> quizService.startAttempt(quiz.getId(), student.getId()));
+    }
+
+    @Test
+    void expiredAttempt_ShouldBeClosedBySchedulerAndRejectSubmission() throws InterruptedException {
+        // Given
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+
+        // When
+        QuizAttemptStatus status = awaitStatusChange(attempt.getId());
+
+        // Then
+        assertEquals(QuizAttemptStatus.EXPIRED, status);
+        assertNull(quizAttemptRegistry.get(attempt.getId()));
+        assertThrows(IllegalStateException.class, () -> quizService.submitQuizWithDetails(quiz.getId(),
+                student.getId(), attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId()))));
+        assertFalse(quizSubmissionRepository.existsByStudentIdAndQuizId(student.getId(), quiz.getId()));
+    }
+
+    @Test
+    void submitAfterTimeLimitWithinGrace_ShouldBeAccepted() throws InterruptedException {
+        // Given
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+        long untilDeadline = Duration.between(LocalDateTime.now(), attempt.getExpiresAt()).toMillis();
+        Thread.sleep(Math.max(0, untilDeadline) + 150);
+
+        // When
+        QuizSubmissionDTO submission = quizService.submitQuizWithDetails(quiz.getId(), student.getId(),
+                attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId())));
+
+        // Then
+        assertEquals(10, submission.getScore());
+        assertEquals(QuizAttemptStatus.SUBMITTED, quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void untimedAttempt_ShouldNotBeHeldInMemoryAndBeCheckedAgainstDatabase() {
+        // Given
+        quiz.setTimeLimit(0);
+        quiz = quizRepository.save(quiz);
+        int openBefore = quizAttemptRegistry.getOpenAttemptCount();
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+        assertNull(attempt.getExpiresAt());
+        assertNull(quizAttemptRegistry.get(attempt.getId()));
+        assertEquals(openBefore, quizAttemptRegistry.getOpenAttemptCount());
+
+        // When
+        QuizSubmissionDTO submission = quizService.submitQuizWithDetails(quiz.getId(), student.getId(),
+                attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId())));
+
+        // Then
+        assertEquals(10, submission.getScore());
+        assertEquals(QuizAttemptStatus.SUBMITTED, quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void submitWithForeignAttempt_ShouldBeRejected() {
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> quizService.submitQuizWithDetails(quiz.getId(),
+                teacher.getId(), attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId()))));
+        assertEquals(QuizAttemptStatus.IN_PROGRESS,
+                quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+    }
+
+    private QuizAttemptStatus awaitStatusChange(Long attemptId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            QuizAttemptStatus status = quizAttemptRepository.findById(attemptId).orElseThrow().getStatus();
+            if (status != QuizAttemptStatus.IN_PROGRESS) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Attempt was not expired in time");
+        return null;
+    }
+}
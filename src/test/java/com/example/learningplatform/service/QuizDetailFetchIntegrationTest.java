@@ -0,0 +1,165 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.QuestionDetailDTO;
+import com.example.learningplatform.dto.QuizDetailDTO;
+import com.example.learningplatform.entity.AnswerOption;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Module;
+import com.example.learningplatform.entity.Question;
+import com.example.learningplatform.entity.Quiz;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.QuestionType;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.AnswerOptionRepository;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.ModuleRepository;
+import com.example.learningplatform.repository.QuestionRepository;
+import com.example.learningplatform.repository.QuizRepository;
+import com.example.learningplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class QuizDetailFetchIntegrationTest {
+
+    private static final int OPTIONS_PER_QUESTION = 4;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerOptionRepository answerOptionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Detail Teacher");
+        teacher.setEmail("detail.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Detail Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+    }
+
+    @Test
+    void getQuizWithQuestions_ShouldUseSameNumberOfStatementsForAnyQuestionCount() {
+        // Given
+        Long smallQuizId = createQuiz("Small Quiz", 2);
+        Long largeQuizId = createQuiz("Large Quiz", 50);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        long smallStatements = countStatements(smallQuizId, 2);
+        long largeStatements = countStatements(largeQuizId, 50);
+
+        // Then
+        // Тест с модулем и курсом + вопросы + варианты всех вопросов
+        assertEquals(3, smallStatements);
+        assertEquals(smallStatements, largeStatements);
+    }
+
+    @Test
+    void getQuizWithQuestions_ShouldKeepQuestionAndOptionOrder() {
+        // Given
+        Long quizId = createQuiz("Ordered Quiz", 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QuizDetailDTO result = quizService.getQuizWithQuestions(quizId);
+
+        // Then
+        assertEquals("Detail Course", result.getCourseTitle());
+        assertEquals("Ordered Quiz Module", result.getModuleTitle());
+        for (int i = 0; i < result.getQuestions().size(); i++) {
+            QuestionDetailDTO question = result.getQuestions().get(i);
+            assertEquals("Question number " + i, question.getText());
+            assertEquals("Option 0", question.getOptions().get(0).getText());
+            assertTrue(question.getOptions().get(0).getIsCorrect());
+        }
+    }
+
+    private long countStatements(Long quizId, int expectedQuestions) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        QuizDetailDTO result = quizService.getQuizWithQuestions(quizId);
+
+        assertEquals(expectedQuestions, result.getQuestions().size());
+        result.getQuestions().forEach(question -> assertEquals(OPTIONS_PER_QUESTION, question.getOptions().size()));
+        long statements = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        return statements;
+    }
+
+    private Long createQuiz(String title, int questionCount) {
+        Module module = new Module();
+        module.setTitle(title + " Module");
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle(title);
+        quiz.setCourse(course);
+        quiz.setModule(module);
+        quiz = quizRepository.save(quiz);
+
+        for (int i = 0; i < questionCount; i++) {
+            Question question = new Question();
+            question.setText("Question number " + i);
+            question.setType(QuestionType.SINGLE_CHOICE);
+            question.setPoints(1);
+            question.setQuiz(quiz);
+            question = questionRepository.save(question);
+
+            for (int j = 0; j < OPTIONS_PER_QUESTION; j++) {
+                AnswerOption option = new AnswerOption();
+                option.setText("Option " + j);
+                option.setIsCorrect(j == 0);
+                option.setQuestion(question);
+                answerOptionRepository.save(option);
+            }
+        }
+        return quiz.getId();
+    }
+}
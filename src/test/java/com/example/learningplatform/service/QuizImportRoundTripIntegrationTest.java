@@ -0,0 +1,174 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.CreateAnswerOptionRequest;
+import com.example.learningplatform.dto.CreateQuestionRequest;
+import com.example.learningplatform.dto.CreateQuizRequest;
+import com.example.learningplatform.dto.QuizDTO;
+import com.example.learningplatform.entity.AnswerOption;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Question;
+import com.example.learningplatform.entity.Quiz;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.QuestionType;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.AnswerOptionRepository;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.QuestionRepository;
+import com.example.learningplatform.repository.QuizRepository;
+import com.example.learningplatform.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Число обращений к базе при создании банка из 200 вопросов: построчное сохранение против пакетного импорта.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class QuizImportRoundTripIntegrationTest {
+
+    private static final int QUESTION_COUNT = 200;
+    private static final int OPTIONS_PER_QUESTION = 4;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerOptionRepository answerOptionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Import Teacher");
+        teacher.setEmail("import.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Import Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void importQuizzes_ShouldBatchInsertsIntoFewRoundTrips() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Построчно, как раньше при IDENTITY: каждая вставка - отдельное обращение к базе
+        statistics.clear();
+        saveRowByRow("Row By Row Quiz");
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+
+        // When
+        statistics.clear();
+        List<QuizDTO> imported = quizService.importQuizzes(List.of(createQuizRequest("Imported Quiz")));
+        entityManager.flush();
+        long importStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        log.info("Quiz with {} questions and {} options: row-by-row {} statements, batched import {} statements",
+                QUESTION_COUNT, QUESTION_COUNT * OPTIONS_PER_QUESTION, rowByRowStatements, importStatements);
+        assertEquals(1, imported.size());
+        assertEquals(QUESTION_COUNT, questionRepository.findByQuizId(imported.get(0).getId()).size());
+        assertTrue(rowByRowStatements > QUESTION_COUNT * OPTIONS_PER_QUESTION);
+        // Выборка курса, выделение пулов id и пачки по 50 вставок
+        assertTrue(importStatements < 30, "Batched import used " + importStatements + " statements");
+    }
+
+    @Test
+    void importQuizzes_ShouldRejectUnknownCourse() {
+        CreateQuizRequest request = createQuizRequest("Orphan Quiz");
+        request.setCourseId(Long.MAX_VALUE);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> quizService.importQuizzes(List.of(request)));
+    }
+
+    private void saveRowByRow(String title) {
+        Quiz quiz = new Quiz();
+        quiz.setTitle(title);
+        quiz.setCourse(courseRepository.getReferenceById(course.getId()));
+        quiz = quizRepository.saveAndFlush(quiz);
+
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            Question question = new Question();
+            question.setQuiz(quiz);
+            question.setText("Row question " + i);
+            question.setType(QuestionType.SINGLE_CHOICE);
+            question = questionRepository.saveAndFlush(question);
+
+            for (int j = 0; j < OPTIONS_PER_QUESTION; j++) {
+                AnswerOption option = new AnswerOption();
+                option.setQuestion(question);
+                option.setText("Option " + j);
+                option.setIsCorrect(j == 0);
+                answerOptionRepository.saveAndFlush(option);
+            }
+        }
+    }
+
+    private CreateQuizRequest createQuizRequest(String title) {
+        List<CreateQuestionRequest> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTION_COUNT; i++) {
+            List<CreateAnswerOptionRequest> options = new ArrayList<>();
+            for (int j = 0; j < OPTIONS_PER_QUESTION; j++) {
+                CreateAnswerOptionRequest option = new CreateAnswerOptionRequest();
+                option.setText("Option " + j);
+                option.setIsCorrect(j == 0);
+                options.add(option);
+            }
+
+            CreateQuestionRequest question = new CreateQuestionRequest();
+            question.setText("Imported question " + i);
+            question.setType(QuestionType.SINGLE_CHOICE);
+            question.setOptions(options);
+            questions.add(question);
+        }
+
+        CreateQuizRequest request = new CreateQuizRequest();
+        request.setTitle(title);
+        request.setCourseId(course.getId());
+        request.setQuestions(questions);
+        return request;
+    }
+}
@@ -4,7 +4,15 @@ import com.example.learningplatform.dto.*;
 import com.example.learningplatform.entity.*;
 import com.example.learningplatform.entity.enums.QuestionType;
 import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
 import com.example.learningplatform.repository.*;
+import com.example.learningplatform.service.quiz.QuizPayloadCache;
+import com.example.learningplatform.service.quiz.QuizView;
+import com.example.learningplatform.service.quiz.RenderedQuiz;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +20,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +45,15 @@ class QuizIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QuizPayloadCache quizPayloadCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Autowired
     private QuizRepository quizRepository;
 
@@ -199,6 +220,40 @@ class QuizIntegrationTest {
         assertTrue(quizSubmissionRepository.existsById(submission.getId()));
     }
 
+    @Test
+    void submitQuiz_MultipleChoice_ShouldRequireExactOptionSet() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+        QuestionDetailDTO question2 = quizService.getQuizWithQuestions(quiz.getId()).getQuestions().get(1);
+        List<Long> correctOptionIds = question2.getOptions().stream()
+                .filter(AnswerOptionDTO::getIsCorrect)
+                .map(AnswerOptionDTO::getId)
+                .toList();
+
+        User secondStudent = new User();
+        secondStudent.setName("Second Student");
+        secondStudent.setEmail("second.student@test.com");
+        secondStudent.setRole(UserRole.STUDENT);
+        secondStudent = userRepository.save(secondStudent);
+
+        // When - один студент выбирает все правильные варианты, другой только часть
+        QuizSubmissionDTO full = quizService.submitQuizWithDetails(quiz.getId(), testStudent.getId(),
+                Map.of(question2.getId(), correctOptionIds));
+        QuizSubmissionDTO partial = quizService.submitQuizWithDetails(quiz.getId(), secondStudent.getId(),
+                Map.of(question2.getId(), List.of(correctOptionIds.getFirst())));
+
+        // Then
+        assertEquals(20, full.getScore());
+        assertEquals(0, partial.getScore());
+        assertEquals("Java Basics Quiz", full.getQuizTitle());
+    }
+
+    @Test
+    void submitQuiz_UnknownQuiz_ShouldThrowException() {
+        assertThrows(ResourceNotFoundException.class, () ->
+                quizService.submitQuizWithDetails(-1L, testStudent.getId(), Map.of()));
+    }
+
     @Test
     void submitQuiz_DuplicateSubmission_ShouldThrowException() {
         // Given
@@ -300,6 +355,102 @@ class QuizIntegrationTest {
         });
     }
 
+    @Test
+    void deleteQuizzesByCourse_ShouldRemoveAllQuizzesInConstantStatements() {
+        // Given
+        List<Long> quizIds = List.of(
+                quizService.createQuiz(createSampleQuizRequest()).getId(),
+                quizService.createQuiz(createSampleQuizRequest()).getId(),
+                quizService.createQuiz(createSampleQuizRequest()).getId());
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        int deleted = quizService.deleteQuizzesByCourse(testCourse.getId());
+
+        // Then
+        assertEquals(3, deleted);
+        // Проверка курса, блокировка тестов, проверка сдач и три массовых удаления
+        assertEquals(6, statistics.getPrepareStatementCount());
+        quizIds.forEach(quizId -> assertFalse(quizRepository.existsById(quizId)));
+        assertTrue(questionRepository.findAll().isEmpty());
+        assertTrue(answerOptionRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void deleteQuizzesByCourse_WithSubmissions_ShouldThrowException() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+        quizService.submitQuizWithDetails(quiz.getId(), testStudent.getId(), Map.of());
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> quizService.deleteQuizzesByCourse(testCourse.getId()));
+        assertTrue(quizRepository.existsById(quiz.getId()));
+    }
+
+    @Test
+    void getQuizAnalytics_ShouldAggregateStoredAnswers() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+        QuizDetailDTO detail = quizService.getQuizWithQuestions(quiz.getId());
+        QuestionDetailDTO first = detail.getQuestions().getFirst();
+        Long correctOptionId = first.getOptions().getFirst().getId();
+        Long wrongOptionId = first.getOptions().get(1).getId();
+
+        User secondStudent = new User();
+        secondStudent.setName("Second Student");
+        secondStudent.setEmail("second.student@test.com");
+        secondStudent.setRole(UserRole.STUDENT);
+        secondStudent = userRepository.save(secondStudent);
+
+        quizService.submitQuizWithDetails(quiz.getId(), testStudent.getId(), Map.of(first.getId(), List.of(correctOptionId)));
+        quizService.submitQuizWithDetails(quiz.getId(), secondStudent.getId(), Map.of(first.getId(), List.of(wrongOptionId)));
+
+        // When
+        QuizAnalyticsDTO analytics = quizService.getQuizAnalytics(quiz.getId());
+
+        // Then
+        assertEquals(2, analytics.getSubmissionCount());
+        assertEquals(5.0, analytics.getAverageScore(), 1e-9);
+        QuestionAnalyticsDTO firstAnalytics = analytics.getQuestions().getFirst();
+        assertEquals(first.getId(), firstAnalytics.getQuestionId());
+        assertEquals(0.5, firstAnalytics.getPercentCorrect(), 1e-9);
+        assertEquals(1.0, firstAnalytics.getDiscrimination(), 1e-9);
+        assertEquals(1, firstAnalytics.getOptions().get(1).getSelectedCount());
+        assertEquals(0.0, analytics.getQuestions().get(1).getPercentCorrect(), 1e-9);
+    }
+
+    @Test
+    void getLeaderboard_ShouldRankStudentsBySubmittedScore() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+        QuestionDetailDTO first = quizService.getQuizWithQuestions(quiz.getId()).getQuestions().getFirst();
+
+        User secondStudent = new User();
+        secondStudent.setName("Second Student");
+        secondStudent.setEmail("second.student@test.com");
+        secondStudent.setRole(UserRole.STUDENT);
+        secondStudent = userRepository.save(secondStudent);
+
+        quizService.submitQuizWithDetails(quiz.getId(), testStudent.getId(), Map.of());
+        quizService.submitQuizWithDetails(quiz.getId(), secondStudent.getId(),
+                Map.of(first.getId(), List.of(first.getOptions().getFirst().getId())));
+
+        // When
+        List<LeaderboardEntryDTO> leaderboard = quizService.getLeaderboard(quiz.getId(), 10);
+        StudentRankDTO rank = quizService.getStudentRank(quiz.getId(), testStudent.getId());
+
+        // Then
+        assertEquals(2, leaderboard.size());
+        assertEquals("Second Student", leaderboard.getFirst().getStudentName());
+        assertEquals(10, leaderboard.getFirst().getScore());
+        assertEquals(2, rank.getRank());
+        assertEquals(2, rank.getParticipants());
+        assertThrows(IllegalArgumentException.class, () -> quizService.getLeaderboard(quiz.getId(), 0));
+    }
+
     @Test
     void getQuizzesByCourse_ShouldReturnCourseQuizzes() {
         // Given
@@ -315,6 +466,84 @@ class QuizIntegrationTest {
         assertEquals(testCourse.getId(), quizzes.getFirst().getCourseId());
     }
 
+    @Test
+    void renderedQuiz_StudentViewShouldHideCorrectAnswers() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+
+        // When
+        RenderedQuiz teacherView = quizPayloadCache.get(quiz.getId(), QuizView.TEACHER);
+        RenderedQuiz studentView = quizPayloadCache.get(quiz.getId(), QuizView.STUDENT);
+
+        // Then
+        String teacherJson = new String(teacherView.body(), StandardCharsets.UTF_8);
+        String studentJson = new String(studentView.body(), StandardCharsets.UTF_8);
+        assertTrue(teacherJson.contains("\"isCorrect\":true"));
+        assertFalse(studentJson.contains("isCorrect"));
+        assertTrue(studentJson.contains("Platform independent"));
+        assertNotEquals(teacherView.etag(), studentView.etag());
+
+        // Повторный запрос отдаёт те же байты из кэша
+        assertSame(studentView, quizPayloadCache.get(quiz.getId(), QuizView.STUDENT));
+        assertTrue(studentView.matches("W/" + studentView.etag()));
+        assertFalse(studentView.matches(teacherView.etag()));
+    }
+
+    @Test
+    void renderedQuiz_ShouldBeInvalidatedWhenQuizIsDeleted() {
+        // Given
+        QuizDTO quiz = quizService.createQuiz(createSampleQuizRequest());
+        quizPayloadCache.get(quiz.getId(), QuizView.STUDENT);
+
+        // When
+        quizService.deleteQuiz(quiz.getId());
+
+        // Then
+        assertThrows(ResourceNotFoundException.class,
+                () -> quizPayloadCache.get(quiz.getId(), QuizView.STUDENT));
+    }
+
+    @Test
+    void quizVariant_ShouldServeAndGradePooledQuestionsByPosition() {
+        // Given
+        CreateQuizRequest request = createSampleQuizRequest();
+        request.setQuestionsPerAttempt(1);
+        QuizDTO quiz = quizService.createQuiz(request);
+        QuizDetailDTO teacherView = quizService.getQuizWithQuestions(quiz.getId());
+
+        // When
+        QuizDetailDTO variant = quizPayloadCache.getVariant(quiz.getId(), testStudent.getId());
+
+        // Then
+        assertEquals(1, variant.getQuestions().size());
+        assertEquals(variant, quizPayloadCache.getVariant(quiz.getId(), testStudent.getId()));
+        QuestionDetailDTO shown = variant.getQuestions().getFirst();
+        assertTrue(shown.getOptions().stream().allMatch(option -> option.getIsCorrect() == null));
+
+        QuestionDetailDTO hidden = teacherView.getQuestions().stream()
+                .filter(question -> !question.getId().equals(shown.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertThrows(IllegalArgumentException.class, () -> quizService.submitQuizWithDetails(quiz.getId(),
+                testStudent.getId(), Map.of(hidden.getId(), List.of(hidden.getOptions().getFirst().getId()))));
+
+        Set<Long> correctOptionIds = teacherView.getQuestions().stream()
+                .flatMap(question -> question.getOptions().stream())
+                .filter(AnswerOptionDTO::getIsCorrect)
+                .map(AnswerOptionDTO::getId)
+                .collect(Collectors.toSet());
+        List<Integer> correctPositions = new ArrayList<>();
+        for (int position = 0; position < shown.getOptions().size(); position++) {
+            if (correctOptionIds.contains(shown.getOptions().get(position).getId())) {
+                correctPositions.add(position);
+            }
+        }
+
+        QuizSubmissionDTO submission = quizService.submitQuizVariant(quiz.getId(), testStudent.getId(), null,
+                Map.of(0, correctPositions));
+        assertEquals(shown.getPoints(), submission.getScore());
+    }
+
     private CreateQuizRequest createSampleQuizRequest() {
         CreateQuizRequest request = new CreateQuizRequest();
         request.setTitle("Java Basics Quiz");
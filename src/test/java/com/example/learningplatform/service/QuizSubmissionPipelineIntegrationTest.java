@@ -0,0 +1,190 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.QuizAttemptDTO;
+import com.example.learningplatform.dto.SubmissionTicketDTO;
+import com.example.learningplatform.entity.AnswerOption;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Question;
+import com.example.learningplatform.entity.Quiz;
+import com.example.learningplatform.entity.QuizSubmission;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.QuestionType;
+import com.example.learningplatform.entity.enums.QuizAttemptStatus;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.repository.*;
+import com.example.learningplatform.service.quiz.QuizSubmissionPipeline;
+import com.example.learningplatform.service.quiz.SubmissionTicketStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без @Transactional: обработчики пишут в своих транзакциях и должны видеть закоммиченные данные
+@SpringBootTest(properties = {
+        "app.quiz.async-submission.enabled=true",
+        "app.quiz.attempts.required=true"
+})
+@ActiveProfiles("test")
+class QuizSubmissionPipelineIntegrationTest {
+
+    @Autowired
+    private QuizSubmissionPipeline quizSubmissionPipeline;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerOptionRepository answerOptionRepository;
+
+    @Autowired
+    private QuizSubmissionRepository quizSubmissionRepository;
+
+    private User teacher;
+    private Course course;
+    private Quiz quiz;
+    private Question question;
+    private AnswerOption correctOption;
+    private User student;
+
+    @BeforeEach
+    void setUp() {
+        teacher = new User();
+        teacher.setName("Async Teacher");
+        teacher.setEmail("async.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        student = new User();
+        student.setName("Async Student");
+        student.setEmail("async.student@example.com");
+        student.setRole(UserRole.STUDENT);
+        student = userRepository.save(student);
+
+        course = new Course();
+        course.setTitle("Async Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        quiz = new Quiz();
+        quiz.setTitle("Async Quiz");
+        quiz.setCourse(course);
+        quiz = quizRepository.save(quiz);
+
+        question = new Question();
+        question.setText("Is this processed asynchronously?");
+        question.setType(QuestionType.SINGLE_CHOICE);
+        question.setPoints(10);
+        question.setQuiz(quiz);
+        question = questionRepository.save(question);
+
+        correctOption = new AnswerOption();
+        correctOption.setText("Yes");
+        correctOption.setIsCorrect(true);
+        correctOption.setQuestion(question);
+        correctOption = answerOptionRepository.save(correctOption);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Транзакции нет, поэтому за собой убираем явно
+        quizSubmissionRepository.deleteAll(quizSubmissionRepository.findByQuizId(quiz.getId()));
+        quizAttemptRepository.deleteAll();
+        answerOptionRepository.delete(correctOption);
+        questionRepository.delete(question);
+        quizRepository.delete(quiz);
+        courseRepository.delete(course);
+        userRepository.deleteAll(List.of(student, teacher));
+    }
+
+    @Test
+    void enqueue_ShouldGradeAndPersistSubmissionInBackground() throws InterruptedException {
+        // When
+        SubmissionTicketDTO ticket = quizSubmissionPipeline.enqueue(quiz.getId(), student.getId(),
+                Map.of(question.getId(), List.of(correctOption.getId())));
+
+        // Then
+        assertEquals("Async Quiz", ticket.getQuizTitle());
+        SubmissionTicketDTO result = awaitCompletion(ticket.getTicketId());
+        assertEquals(SubmissionTicketStatus.COMPLETED, result.getStatus());
+        assertEquals(10, result.getScore());
+        assertTrue(quizSubmissionRepository.existsByStudentIdAndQuizId(student.getId(), quiz.getId()));
+
+        // Повторная отправка отклоняется уже по данным в базе
+        assertThrows(IllegalArgumentException.class, () -> quizSubmissionPipeline.enqueue(quiz.getId(),
+                student.getId(), Map.of(question.getId(), List.of(correctOption.getId()))));
+    }
+
+    @Test
+    void submitQuizAsync_ShouldFinishAttemptBeforeQueueing() throws InterruptedException {
+        // Given
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+
+        // When
+        SubmissionTicketDTO ticket = quizService.submitQuizAsync(quiz.getId(), student.getId(), attempt.getId(),
+                Map.of(question.getId(), List.of(correctOption.getId())));
+
+        // Then
+        assertEquals(QuizAttemptStatus.SUBMITTED, quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+        assertEquals(SubmissionTicketStatus.COMPLETED, awaitCompletion(ticket.getTicketId()).getStatus());
+    }
+
+    @Test
+    void submitQuizAsync_ShouldRequireAttemptWhenConfigured() {
+        assertThrows(IllegalArgumentException.class, () -> quizService.submitQuizAsync(quiz.getId(), student.getId(),
+                null, Map.of(question.getId(), List.of(correctOption.getId()))));
+        assertEquals(0, quizSubmissionPipeline.getQueueSize());
+    }
+
+    @Test
+    void submitQuizAsync_ShouldKeepAttemptOpenWhenQueueRejects() {
+        // Given: попытка открыта, но сдача уже есть - очередь отклонит ответ после закрытия попытки
+        QuizAttemptDTO attempt = quizService.startAttempt(quiz.getId(), student.getId());
+        QuizSubmission existing = new QuizSubmission();
+        existing.setQuiz(quiz);
+        existing.setStudent(student);
+        existing.setScore(0);
+        quizSubmissionRepository.save(existing);
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> quizService.submitQuizAsync(quiz.getId(), student.getId(),
+                attempt.getId(), Map.of(question.getId(), List.of(correctOption.getId()))));
+
+        // Then
+        assertEquals(QuizAttemptStatus.IN_PROGRESS,
+                quizAttemptRepository.findById(attempt.getId()).orElseThrow().getStatus());
+    }
+
+    private SubmissionTicketDTO awaitCompletion(String ticketId) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            SubmissionTicketDTO ticket = quizSubmissionPipeline.getTicket(ticketId);
+            if (ticket.getStatus() != SubmissionTicketStatus.PENDING) {
+                return ticket;
+            }
+            Thread.sleep(50);
+        }
+        fail("Submission was not processed in time");
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.BulkEnrollmentRequest;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.enrollment.RosterExporter;
+import com.example.learningplatform.service.enrollment.RosterFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RosterExportIntegrationTest {
+
+    private static final int ROSTER_SIZE = 200;
+
+    @Autowired
+    private RosterExporter rosterExporter;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+    private Long quotedStudentId;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = new User();
+        teacher.setName("Roster Teacher");
+        teacher.setEmail("roster.teacher@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        course = new Course();
+        course.setTitle("Roster Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        List<Long> studentIds = new ArrayList<>();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            User student = new User();
+            student.setName(i == 0 ? "Doe, \"Johnny\" Jr" : "Roster Student " + i);
+            student.setEmail("roster.student" + i + "@example.com");
+            student.setRole(UserRole.STUDENT);
+            studentIds.add(userRepository.save(student).getId());
+        }
+        quotedStudentId = studentIds.get(0);
+
+        BulkEnrollmentRequest request = new BulkEnrollmentRequest();
+        request.setCourseId(course.getId());
+        request.setStudentIds(studentIds);
+        enrollmentService.bulkEnroll(request);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ShouldStreamCsvWithEscapedFieldsWithoutLoadingEntities() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = rosterExporter.export(course.getId(), RosterFormat.CSV, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(ROSTER_SIZE, rows);
+        assertEquals(ROSTER_SIZE + 1, lines.size());
+        assertEquals("enrollment_id,student_id,student_name,student_email,enroll_date,status,progress", lines.get(0));
+        assertTrue(lines.get(1).contains("," + quotedStudentId + ",\"Doe, \"\"Johnny\"\" Jr\",roster.student0@example.com,"));
+        assertTrue(lines.get(1).endsWith(",ACTIVE,0"));
+        // Строки - проекции: в контексте персистентности не осталось ни записей, ни студентов
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void export_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rosterExporter.export(course.getId(), RosterFormat.NDJSON, out);
+
+        // Then
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(ROSTER_SIZE, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(quotedStudentId, first.get("studentId").asLong());
+        assertEquals("Doe, \"Johnny\" Jr", first.get("studentName").asText());
+        assertEquals("ACTIVE", first.get("status").asText());
+        assertTrue(first.get("enrollDate").isTextual());
+    }
+
+    @Test
+    void export_ShouldRejectUnknownCourseAndFormat() {
+        assertThrows(ResourceNotFoundException.class, () -> rosterExporter.requireCourse(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> RosterFormat.fromParam("xlsx"));
+        assertEquals(RosterFormat.NDJSON, RosterFormat.fromParam("ndjson"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.CreateCourseReviewRequest;
+import com.example.learningplatform.dto.StudentDashboardDTO;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.service.dashboard.StudentDashboardProjector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Без @Transactional: страница помечается устаревшей после коммита. Фоновое обновление в тестах
+// выключено, помеченные пересобираются явно
+@SpringBootTest
+@ActiveProfiles("test")
+class StudentDashboardIntegrationTest {
+
+    @Autowired
+    private StudentDashboardProjector studentDashboardProjector;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseReviewService courseReviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User teacher;
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+
+        teacher = new User();
+        teacher.setName("Dashboard Teacher");
+        teacher.setEmail("dashboard.teacher." + runId + "@example.com");
+        teacher.setRole(UserRole.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        student = new User();
+        student.setName("Dashboard Student");
+        student.setEmail("dashboard.student." + runId + "@example.com");
+        student.setRole(UserRole.STUDENT);
+        student = userRepository.save(student);
+
+        course = new Course();
+        course.setTitle("Dashboard Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM student_dashboards WHERE student_id = ?", student.getId());
+        jdbcTemplate.update("DELETE FROM course_reviews WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM enrollments WHERE course_id = ?", course.getId());
+        courseRepository.deleteById(course.getId());
+        userRepository.deleteById(student.getId());
+        userRepository.deleteById(teacher.getId());
+    }
+
+    @Test
+    void dashboard_ShouldBeRefreshedFromActivityEvents() throws Exception {
+        // Given
+        assertTrue(dashboard().getEnrollments().isEmpty());
+
+        // When
+        enrollmentService.enrollStudent(student.getId(), course.getId());
+
+        // Then
+        assertTrue(studentDashboardProjector.isStale(student.getId()));
+        assertTrue(studentDashboardProjector.refreshStale() >= 1);
+        assertFalse(studentDashboardProjector.isStale(student.getId()));
+
+        StudentDashboardDTO dashboard = dashboard();
+        assertEquals(1, dashboard.getEnrollments().size());
+        assertEquals("Dashboard Course", dashboard.getEnrollments().get(0).getCourseTitle());
+        assertEquals("Dashboard Student", dashboard.getStudentName());
+    }
+
+    @Test
+    void dashboard_ShouldShowOwnChangesBeforeBackgroundRefresh() throws Exception {
+        // Given
+        dashboard();
+        CreateCourseReviewRequest review = new CreateCourseReviewRequest();
+        review.setCourseId(course.getId());
+        review.setRating(4);
+
+        // When
+        courseReviewService.createReview(student.getId(), review);
+
+        // Then
+        StudentDashboardDTO dashboard = dashboard();
+        assertEquals(1, dashboard.getReviews().size());
+        assertEquals(4, dashboard.getReviews().get(0).getRating());
+    }
+
+    @Test
+    void dashboard_ShouldShowEditedReview() throws Exception {
+        // Given
+        CreateCourseReviewRequest review = new CreateCourseReviewRequest();
+        review.setCourseId(course.getId());
+        review.setRating(2);
+        Long reviewId = courseReviewService.createReview(student.getId(), review).getId();
+        assertEquals(2, dashboard().getReviews().get(0).getRating());
+
+        // When
+        review.setRating(5);
+        review.setComment("Changed my mind");
+        courseReviewService.updateReview(reviewId, review);
+
+        // Then
+        assertTrue(studentDashboardProjector.isStale(student.getId()));
+        StudentDashboardDTO dashboard = dashboard();
+        assertEquals(5, dashboard.getReviews().get(0).getRating());
+        assertEquals("Changed my mind", dashboard.getReviews().get(0).getComment());
+    }
+
+    @Test
+    void courseDelete_ShouldFindStudentsWhosePagesLoseRows() {
+        // Given: запись и отзыв одного студента - страницу пересобираем один раз
+        enrollmentService.enrollStudent(student.getId(), course.getId());
+        CreateCourseReviewRequest review = new CreateCourseReviewRequest();
+        review.setCourseId(course.getId());
+        review.setRating(3);
+        courseReviewService.createReview(student.getId(), review);
+
+        // When
+        List<Long> affected = userRepository.findStudentIdsWithActivityInCourses(
+                courseRepository.findIdsByTeacherId(teacher.getId()));
+
+        // Then
+        assertEquals(List.of(student.getId()), affected);
+    }
+
+    @Test
+    void dashboard_ShouldBeServedWithOneQueryOnceBuilt() {
+        // Given
+        studentDashboardProjector.rebuild(student.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        String payload = studentDashboardProjector.getDashboard(student.getId());
+
+        // Then
+        assertTrue(payload.contains("\"studentId\":" + student.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rebuildAll_ShouldBuildMissingDashboards() throws Exception {
+        // When
+        int rebuilt = studentDashboardProjector.rebuildAll();
+
+        // Then
+        assertTrue(rebuilt >= 1);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_dashboards WHERE student_id = ?", Integer.class, student.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> studentDashboardProjector.getDashboard(Long.MAX_VALUE));
+    }
+
+    private StudentDashboardDTO dashboard() throws Exception {
+        return objectMapper.readValue(studentDashboardProjector.getDashboard(student.getId()), StudentDashboardDTO.class);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.learningplatform.service;
+
+import com.example.learningplatform.dto.SubmissionDTO;
+import com.example.learningplatform.entity.Assignment;
+import com.example.learningplatform.entity.Course;
+import com.example.learningplatform.entity.Lesson;
+import com.example.learningplatform.entity.Module;
+import com.example.learningplatform.entity.SubmissionContent;
+import com.example.learningplatform.entity.User;
+import com.example.learningplatform.entity.enums.ContentEncoding;
+import com.example.learningplatform.entity.enums.UserRole;
+import com.example.learningplatform.exception.ResourceNotFoundException;
+import com.example.learningplatform.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SubmissionContentIntegrationTest {
+
+    private static final String ESSAY = "Решение задачи: перебираем элементы и считаем сумму. ".repeat(200);
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ModuleRepository moduleRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionContentRepository submissionContentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Assignment assignment;
+    private User firstStudent;
+    private User secondStudent;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = createUser("Content Teacher", "content.teacher@example.com", UserRole.TEACHER);
+        firstStudent = createUser("Content Student 1", "content.student1@example.com", UserRole.STUDENT);
+        secondStudent = createUser("Content Student 2", "content.student2@example.com", UserRole.STUDENT);
+
+        Course course = new Course();
+        course.setTitle("Content Course");
+        course.setTeacher(teacher);
+        course = courseRepository.save(course);
+
+        Module module = new Module();
+        module.setTitle("Content Module");
+        module.setOrderIndex(1);
+        module.setCourse(course);
+        module = moduleRepository.save(module);
+
+        Lesson lesson = new Lesson();
+        lesson.setTitle("Content Lesson");
+        lesson.setOrderIndex(1);
+        lesson.setModule(module);
+        lesson = lessonRepository.save(lesson);
+
+        assignment = new Assignment();
+        assignment.setTitle("Content Assignment");
+        assignment.setLesson(lesson);
+        assignment = assignmentRepository.save(assignment);
+    }
+
+    @Test
+    void submitAssignment_ShouldStoreIdenticalBodiesOnceAndCompressed() {
+        // When
+        SubmissionDTO first = assignmentService.submitAssignment(assignment.getId(), firstStudent.getId(), ESSAY);
+        SubmissionDTO second = assignmentService.submitAssignment(assignment.getId(), secondStudent.getId(), ESSAY);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        int originalSize = ESSAY.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(originalSize, first.getContentSize());
+        assertEquals(originalSize, second.getContentSize());
+
+        String hash = submissionRepository.findById(first.getId()).orElseThrow().getContentHash();
+        assertEquals(hash, submissionRepository.findById(second.getId()).orElseThrow().getContentHash());
+        SubmissionContent content = submissionContentRepository.findById(hash).orElseThrow();
+        assertEquals(ContentEncoding.DEFLATE, content.getEncoding());
+        assertTrue(content.getData().length < originalSize / 10);
+
+        assertEquals(ESSAY, assignmentService.getSubmissionContent(first.getId()));
+        assertEquals(ESSAY, assignmentService.getSubmissionContent(second.getId()));
+    }
+
+    @Test
+    void submitAssignment_ShouldKeepShortBodiesUncompressed() {
+        // When
+        SubmissionDTO submission = assignmentService.submitAssignment(assignment.getId(), firstStudent.getId(), "42");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        String hash = submissionRepository.findById(submission.getId()).orElseThrow().getContentHash();
+        assertEquals(ContentEncoding.IDENTITY, submissionContentRepository.findById(hash).orElseThrow().getEncoding());
+        assertEquals("42", assignmentService.getSubmissionContent(submission.getId()));
+    }
+
+    @Test
+    void getSubmissionsByAssignment_ShouldReturnSizeWithoutBody() {
+        // Given
+        assignmentService.submitAssignment(assignment.getId(), firstStudent.getId(), ESSAY);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<SubmissionDTO> submissions = assignmentService.getSubmissionsByAssignment(assignment.getId());
+
+        // Then
+        assertEquals(1, submissions.size());
+        assertEquals(ESSAY.getBytes(StandardCharsets.UTF_8).length, submissions.get(0).getContentSize());
+        assertEquals("Content Student 1", submissions.get(0).getStudentName());
+    }
+
+    @Test
+    void getSubmissionContent_ShouldThrowWhenSubmissionIsMissing() {
+        assertThrows(ResourceNotFoundException.class, () -> assignmentService.getSubmissionContent(Long.MAX_VALUE));
+    }
+
+    private User createUser(String name, String email, UserRole role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+}
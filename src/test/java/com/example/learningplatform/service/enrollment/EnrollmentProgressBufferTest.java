@@ -0,0 +1,57 @@
+package com.example.learningplatform.service.enrollment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EnrollmentProgressBufferTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // Поток сброса не запускается (start() не вызывается), сброс - только явный
+    private final EnrollmentProgressBuffer buffer =
+            new EnrollmentProgressBuffer(jdbcTemplate, true, Duration.ofHours(1), 2, true);
+
+    @Test
+    void record_ShouldKeepMaximumProgress() {
+        buffer.record(1L, 30);
+        buffer.record(1L, 80);
+        buffer.record(1L, 50);
+
+        assertEquals(80, buffer.resolve(1L, 10));
+        assertEquals(90, buffer.resolve(1L, 90));
+        assertEquals(10, buffer.resolve(2L, 10));
+        assertEquals(1, buffer.getPendingCount());
+    }
+
+    @Test
+    void flush_ShouldWriteOneStatementPerChunk() {
+        buffer.record(1L, 10);
+        buffer.record(2L, 20);
+        buffer.record(3L, 30);
+
+        assertEquals(3, buffer.flush());
+
+        // batch-size 2: две пачки - два UPDATE ... FROM (VALUES ...)
+        verify(jdbcTemplate).update(contains("(VALUES (CAST(? AS BIGINT), CAST(? AS INTEGER)), (CAST("),
+                eq(1L), eq(10), eq(2L), eq(20));
+        verify(jdbcTemplate).update(anyString(), eq(3L), eq(30));
+        assertEquals(0, buffer.getPendingCount());
+        assertEquals(0, buffer.flush());
+    }
+
+    @Test
+    void flush_ShouldKeepUpdatesWhenWriteFails() {
+        buffer.record(1L, 10);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, buffer::flush);
+        assertTrue(buffer.isPending(1L));
+    }
+}
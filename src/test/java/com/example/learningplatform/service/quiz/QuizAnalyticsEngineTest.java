@@ -0,0 +1,131 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.QuestionAnalyticsDTO;
+import com.example.learningplatform.dto.QuizAnalyticsDTO;
+import com.example.learningplatform.repository.QuizSubmissionRepository;
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import com.example.learningplatform.repository.projection.SubmissionAnswersRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuizAnalyticsEngineTest {
+
+    // Вопрос 10 (1 балл): 100 (верный), 101; вопрос 20 (1 балл): 200, 201 (верный)
+    private final QuizAnswerKey key = QuizAnswerKey.compile(1L, List.of(
+            new AnswerKeyRow("Quiz", 10L, 1, 100L, true),
+            new AnswerKeyRow("Quiz", 10L, 1, 101L, false),
+            new AnswerKeyRow("Quiz", 20L, 1, 200L, false),
+            new AnswerKeyRow("Quiz", 20L, 1, 201L, true)));
+
+    private final QuizSubmissionRepository quizSubmissionRepository = mock(QuizSubmissionRepository.class);
+    private QuizAnalyticsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        QuizAnswerKeyCache quizAnswerKeyCache = mock(QuizAnswerKeyCache.class);
+        when(quizAnswerKeyCache.get(1L)).thenReturn(key);
+        engine = new QuizAnalyticsEngine(quizAnswerKeyCache, quizSubmissionRepository);
+    }
+
+    @Test
+    void getAnalytics_ShouldComputeDifficultyDiscriminationAndDistractors() {
+        // Сильный студент отвечает верно на оба вопроса, слабые ошибаются во втором
+        when(quizSubmissionRepository.findAnswersByQuizId(1L)).thenReturn(List.of(
+                submission(1L, Map.of(10L, List.of(100L), 20L, List.of(201L))),
+                submission(2L, Map.of(10L, List.of(100L), 20L, List.of(200L))),
+                submission(3L, Map.of(10L, List.of(101L), 20L, List.of(200L))),
+                new SubmissionAnswersRow(4L, 2, new byte[1])));
+
+        QuizAnalyticsDTO analytics = engine.getAnalytics(1L);
+
+        // Строка с упаковкой другой длины пропускается
+        assertEquals(3, analytics.getSubmissionCount());
+        assertEquals(1.0, analytics.getAverageScore(), 1e-9);
+
+        QuestionAnalyticsDTO second = analytics.getQuestions().get(1);
+        assertEquals(1, second.getCorrectCount());
+        assertEquals(1.0 / 3, second.getPercentCorrect(), 1e-9);
+        assertTrue(second.getDiscrimination() > 0.8);
+        assertEquals(2, second.getOptions().get(0).getSelectedCount());
+        assertFalse(second.getOptions().get(0).getIsCorrect());
+    }
+
+    @Test
+    void recordSubmission_ShouldUpdateLoadedStatisticsWithoutReloading() {
+        when(quizSubmissionRepository.findAnswersByQuizId(1L)).thenReturn(List.of());
+        assertEquals(0, engine.getAnalytics(1L).getSubmissionCount());
+        assertNull(engine.getAnalytics(1L).getQuestions().get(0).getPercentCorrect());
+
+        SubmissionAnswersRow row = submission(1L, Map.of(10L, List.of(100L), 20L, List.of(201L)));
+        engine.recordSubmission(1L, row.studentId(), row.score(), row.answerMasks());
+
+        QuizAnalyticsDTO analytics = engine.getAnalytics(1L);
+        assertEquals(1, analytics.getSubmissionCount());
+        assertEquals(1.0, analytics.getQuestions().get(0).getPercentCorrect(), 1e-9);
+        // Все ответили одинаково - дискриминация не определена
+        assertNull(analytics.getQuestions().get(0).getDiscrimination());
+        verify(quizSubmissionRepository, times(1)).findAnswersByQuizId(1L);
+    }
+
+    @Test
+    void recordSubmission_ShouldIgnoreSubmissionAlreadyCoveredByLoad() {
+        // Сдача закоммичена до загрузки, а её хук после коммита сработал уже после неё
+        SubmissionAnswersRow row = submission(1L, Map.of(10L, List.of(100L), 20L, List.of(201L)));
+        when(quizSubmissionRepository.findAnswersByQuizId(1L)).thenReturn(List.of(row));
+        engine.getAnalytics(1L);
+
+        engine.recordSubmission(1L, row.studentId(), row.score(), row.answerMasks());
+
+        QuizAnalyticsDTO analytics = engine.getAnalytics(1L);
+        assertEquals(1, analytics.getSubmissionCount());
+        assertEquals(1, analytics.getQuestions().get(0).getCorrectCount());
+    }
+
+    @Test
+    void getAnalytics_ShouldMeasurePooledQuestionsOnlyOverStudentsWhoGotThem() {
+        // Банк из 4 вопросов по 2 варианта (первый верный), студенту достаются 2; все отвечают верно
+        List<AnswerKeyRow> rows = new ArrayList<>();
+        for (int question = 0; question < 4; question++) {
+            rows.add(new AnswerKeyRow("Pool", 30L + question, 1, 300L + question * 10, true, 2));
+            rows.add(new AnswerKeyRow("Pool", 30L + question, 1, 301L + question * 10, false, 2));
+        }
+        QuizAnswerKey pooled = QuizAnswerKey.compile(2L, rows);
+        QuizAnswerKeyCache quizAnswerKeyCache = mock(QuizAnswerKeyCache.class);
+        when(quizAnswerKeyCache.get(2L)).thenReturn(pooled);
+
+        List<SubmissionAnswersRow> submissions = new ArrayList<>();
+        for (long studentId = 1; studentId <= 40; studentId++) {
+            QuizVariant variant = QuizVariant.generate(pooled, studentId);
+            Map<Long, List<Long>> answers = new HashMap<>();
+            for (int position = 0; position < variant.getQuestionCount(); position++) {
+                int question = variant.getQuestion(position);
+                answers.put(pooled.getQuestionId(question), List.of(pooled.getOptionId(question, 0)));
+            }
+            submissions.add(new SubmissionAnswersRow(studentId, pooled.score(answers), pooled.packSelections(answers)));
+        }
+        when(quizSubmissionRepository.findAnswersByQuizId(2L)).thenReturn(submissions);
+
+        QuizAnalyticsDTO analytics = new QuizAnalyticsEngine(quizAnswerKeyCache, quizSubmissionRepository).getAnalytics(2L);
+
+        assertEquals(40, analytics.getSubmissionCount());
+        assertEquals(80, analytics.getQuestions().stream().mapToLong(QuestionAnalyticsDTO::getExposedCount).sum());
+        for (QuestionAnalyticsDTO question : analytics.getQuestions()) {
+            assertTrue(question.getExposedCount() > 0 && question.getExposedCount() < 40);
+            assertEquals(1.0, question.getPercentCorrect(), 1e-9);
+            assertEquals(1.0, question.getOptions().get(0).getSelectedRate(), 1e-9);
+            assertNull(question.getDiscrimination());
+        }
+    }
+
+    private SubmissionAnswersRow submission(long studentId, Map<Long, List<Long>> answers) {
+        return new SubmissionAnswersRow(studentId, key.score(answers), key.packSelections(answers));
+    }
+}
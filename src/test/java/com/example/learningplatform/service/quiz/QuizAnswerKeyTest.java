@@ -0,0 +1,80 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizAnswerKeyTest {
+
+    // Вопрос 10 (5 баллов): варианты 100 (верный), 101; вопрос 20 (7 баллов): 200, 201 (верные), 202
+    private final QuizAnswerKey key = QuizAnswerKey.compile(1L, List.of(
+            new AnswerKeyRow("Quiz", 10L, 5, 100L, true),
+            new AnswerKeyRow("Quiz", 10L, 5, 101L, false),
+            new AnswerKeyRow("Quiz", 20L, 7, 200L, true),
+            new AnswerKeyRow("Quiz", 20L, 7, 201L, true),
+            new AnswerKeyRow("Quiz", 20L, 7, 202L, false)));
+
+    @Test
+    void score_ShouldCountOnlyExactlyMatchingAnswers() {
+        assertEquals(12, key.score(Map.of(10L, List.of(100L), 20L, List.of(201L, 200L))));
+        assertEquals(5, key.score(Map.of(10L, List.of(100L, 100L), 20L, List.of(200L))));
+        assertEquals(0, key.score(Map.of(10L, List.of(100L, 101L), 20L, List.of(200L, 201L, 202L))));
+    }
+
+    @Test
+    void score_ShouldRejectOptionsOfOtherQuestionsAndIgnoreUnknownQuestions() {
+        assertEquals(0, key.score(Map.of(10L, List.of(100L, 200L))));
+        assertEquals(0, key.score(Map.of(99L, List.of(100L))));
+        assertEquals("Quiz", key.getQuizTitle());
+        assertEquals(2, key.getQuestionCount());
+    }
+
+    @Test
+    void foreignOption_ShouldBeRejectedBeforeScoringAndPacking() {
+        // Вариант 200 - из вопроса 20: score не засчитал бы вопрос 10, упаковка отбросила бы вариант
+        Map<Long, List<Long>> answers = Map.of(10L, List.of(100L, 200L));
+
+        assertEquals(0, key.score(answers));
+        assertThrows(IllegalArgumentException.class, () -> key.rejectForeignOptions(answers));
+        assertThrows(IllegalArgumentException.class, () -> key.packSelections(answers));
+        assertDoesNotThrow(() -> key.rejectForeignOptions(Map.of(10L, List.of(100L), 99L, List.of(200L))));
+    }
+
+    @Test
+    void score_ShouldHandleQuestionsWithMoreThan64Options() {
+        List<AnswerKeyRow> rows = new ArrayList<>();
+        LongStream.range(0, 100).forEach(i -> rows.add(new AnswerKeyRow("Wide", 1L, 3, 1000 + i, i % 30 == 0)));
+        QuizAnswerKey wideKey = QuizAnswerKey.compile(2L, rows);
+
+        assertEquals(3, wideKey.score(Map.of(1L, List.of(1000L, 1030L, 1060L, 1090L))));
+        assertEquals(0, wideKey.score(Map.of(1L, List.of(1000L, 1030L, 1060L))));
+        assertEquals(0, wideKey.score(Map.of(1L, List.of(1000L, 1030L, 1060L, 1090L, 1099L))));
+    }
+
+    @Test
+    void packSelections_ShouldStoreOneByteRangePerQuestion() {
+        byte[] packed = key.packSelections(Map.of(20L, List.of(200L, 202L), 99L, List.of(100L)));
+
+        assertEquals(2, packed.length);
+        assertFalse(key.isSelected(packed, 0, 0));
+        assertTrue(key.isSelected(packed, 1, 0));
+        assertFalse(key.isSelected(packed, 1, 1));
+        assertTrue(key.isSelected(packed, 1, 2));
+        assertFalse(key.isAnsweredCorrectly(packed, 1));
+        assertTrue(key.isAnsweredCorrectly(key.packSelections(Map.of(20L, List.of(201L, 200L))), 1));
+    }
+
+    @Test
+    void compile_ShouldAcceptQuizWithoutQuestions() {
+        QuizAnswerKey emptyKey = QuizAnswerKey.compile(3L, List.of(new AnswerKeyRow("Empty", null, null, null, null)));
+
+        assertEquals(0, emptyKey.getQuestionCount());
+        assertEquals(0, emptyKey.score(Map.of(1L, List.of(1L))));
+    }
+}
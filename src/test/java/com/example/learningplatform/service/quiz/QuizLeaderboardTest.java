@@ -0,0 +1,59 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.LeaderboardEntryDTO;
+import com.example.learningplatform.dto.StudentRankDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizLeaderboardTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private QuizLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new QuizLeaderboard(100);
+        leaderboard.add(1L, "Alice", 70, START.plusMinutes(3));
+        leaderboard.add(2L, "Bob", 90, START.plusMinutes(5));
+        leaderboard.add(3L, "Carol", 70, START.plusMinutes(1));
+        leaderboard.add(4L, "Dave", 40, START.plusMinutes(2));
+    }
+
+    @Test
+    void top_ShouldOrderByScoreThenTimeWithSharedRanksForTies() {
+        List<LeaderboardEntryDTO> top = leaderboard.top(3);
+
+        assertEquals(List.of("Bob", "Carol", "Alice"), top.stream().map(LeaderboardEntryDTO::getStudentName).toList());
+        assertEquals(List.of(1, 2, 2), top.stream().map(LeaderboardEntryDTO::getRank).toList());
+        assertEquals(4, leaderboard.top(10).size());
+    }
+
+    @Test
+    void rank_ShouldCountStudentsWithHigherScore() {
+        StudentRankDTO alice = leaderboard.rank(1L, 1L);
+        StudentRankDTO dave = leaderboard.rank(1L, 4L);
+
+        assertEquals(2, alice.getRank());
+        assertEquals(4, dave.getRank());
+        assertEquals(4, dave.getParticipants());
+        assertNull(leaderboard.rank(1L, 99L));
+    }
+
+    @Test
+    void add_ShouldIgnoreRepeatedStudentAndClampScore() {
+        leaderboard.add(1L, "Alice", 100, START);
+        leaderboard.add(5L, "Eve", 500, START);
+
+        assertEquals(5, leaderboard.size());
+        assertEquals(70, leaderboard.rank(1L, 1L).getScore());
+        assertEquals(3, leaderboard.rank(1L, 1L).getRank());
+        assertEquals(100, leaderboard.rank(1L, 5L).getScore());
+        assertEquals(1, leaderboard.rank(1L, 5L).getRank());
+    }
+}
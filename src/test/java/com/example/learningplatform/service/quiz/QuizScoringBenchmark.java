@@ -0,0 +1,113 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.entity.AnswerOption;
+import com.example.learningplatform.entity.Question;
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение прежнего calculateScore (HashSet по каждому вопросу) с битовыми масками {@link QuizAnswerKey}.
+ * <p>
+ * Запуск: {@code mvn test-compile} и затем {@link #main(String[])} из IDE, либо
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main QuizScoringBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizScoringBenchmark {
+
+    private static final int OPTIONS_PER_QUESTION = 4;
+
+    @Param({"10", "100", "1000"})
+    private int questionCount;
+
+    private Map<Long, Question> questionMap;
+    private Map<Long, List<AnswerOption>> questionOptionsMap;
+    private QuizAnswerKey answerKey;
+    private Map<Long, List<Long>> answers;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        questionMap = new HashMap<>();
+        questionOptionsMap = new HashMap<>();
+        answers = new HashMap<>();
+        List<AnswerKeyRow> rows = new ArrayList<>();
+
+        long optionId = 1;
+        for (long questionId = 1; questionId <= questionCount; questionId++) {
+            Question question = new Question();
+            question.setId(questionId);
+            question.setPoints(1 + random.nextInt(5));
+            questionMap.put(questionId, question);
+
+            List<AnswerOption> options = new ArrayList<>();
+            List<Long> correctIds = new ArrayList<>();
+            for (int i = 0; i < OPTIONS_PER_QUESTION; i++, optionId++) {
+                AnswerOption option = new AnswerOption();
+                option.setId(optionId);
+                option.setIsCorrect(i == 0 || random.nextInt(3) == 0);
+                options.add(option);
+                rows.add(new AnswerKeyRow("Benchmark", questionId, question.getPoints(), optionId, option.getIsCorrect()));
+                if (option.getIsCorrect()) {
+                    correctIds.add(optionId);
+                }
+            }
+            questionOptionsMap.put(questionId, options);
+
+            // Половина ответов верная, половина - с лишним вариантом
+            List<Long> selected = new ArrayList<>(correctIds);
+            if (random.nextBoolean()) {
+                selected.add(options.get(OPTIONS_PER_QUESTION - 1).getId());
+            }
+            answers.put(questionId, selected);
+        }
+
+        answerKey = QuizAnswerKey.compile(1L, rows);
+        if (legacyScore() != bitmaskScore()) {
+            throw new IllegalStateException("Legacy and bitmask scoring disagree");
+        }
+    }
+
+    @Benchmark
+    public int legacyScore() {
+        int score = 0;
+        for (Map.Entry<Long, List<Long>> entry : answers.entrySet()) {
+            Question question = questionMap.get(entry.getKey());
+            List<AnswerOption> options = questionOptionsMap.get(entry.getKey());
+            if (question != null && options != null) {
+                List<Long> correctOptionIds = options.stream()
+                        .filter(AnswerOption::getIsCorrect)
+                        .map(AnswerOption::getId)
+                        .toList();
+                boolean isCorrect = new HashSet<>(entry.getValue()).containsAll(correctOptionIds) &&
+                        new HashSet<>(correctOptionIds).containsAll(entry.getValue());
+                if (isCorrect) {
+                    score += question.getPoints();
+                }
+            }
+        }
+        return score;
+    }
+
+    @Benchmark
+    public int bitmaskScore() {
+        return answerKey.score(answers);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuizScoringBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
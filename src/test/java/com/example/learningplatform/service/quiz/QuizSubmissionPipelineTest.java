@@ -0,0 +1,160 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.dto.SubmissionTicketDTO;
+import com.example.learningplatform.exception.TooManyRequestsException;
+import com.example.learningplatform.repository.QuizRepository;
+import com.example.learningplatform.repository.QuizSubmissionRepository;
+import com.example.learningplatform.repository.UserRepository;
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizSubmissionPipelineTest {
+
+    private final QuizAnswerKeyCache quizAnswerKeyCache = mock(QuizAnswerKeyCache.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final QuizSubmissionRepository quizSubmissionRepository = mock(QuizSubmissionRepository.class);
+    private final QuizRepository quizRepository = mock(QuizRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    // Обработчики не запускаются (start() не вызывается), очередь разбирает только shutdown()
+    private QuizSubmissionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        when(quizAnswerKeyCache.get(1L)).thenReturn(QuizAnswerKey.compile(1L, List.of(
+                new AnswerKeyRow("Quiz", 10L, 5, 100L, true),
+                new AnswerKeyRow("Quiz", 10L, 5, 101L, false))));
+        when(userRepository.findNameById(anyLong())).thenReturn(Optional.of("Student"));
+        when(quizRepository.lockIdsForSubmission(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+
+        pipeline = new QuizSubmissionPipeline(quizAnswerKeyCache, mock(QuizAnalyticsEngine.class),
+                mock(QuizLeaderboardIndex.class), userRepository, quizSubmissionRepository, quizRepository, jdbcTemplate,
+                mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class),
+                2, 1, 10, Duration.ofHours(1), 100, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void enqueue_ShouldRejectWhenQueueIsFull() {
+        pipeline.enqueue(1L, 1L, Map.of(10L, List.of(100L)));
+        pipeline.enqueue(1L, 2L, Map.of(10L, List.of(100L)));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> pipeline.enqueue(1L, 3L, Map.of(10L, List.of(100L))));
+        assertEquals(2, pipeline.getQueueSize());
+    }
+
+    @Test
+    void enqueue_ShouldRejectQuestionsOutsideStudentVariant() {
+        // Банк из 4 вопросов, студенту достаются 2
+        List<AnswerKeyRow> rows = new ArrayList<>();
+        for (int question = 0; question < 4; question++) {
+            rows.add(new AnswerKeyRow("Pool", 20L + question, 1, 200L + question, true, 2));
+        }
+        QuizAnswerKey pooled = QuizAnswerKey.compile(2L, rows);
+        when(quizAnswerKeyCache.get(2L)).thenReturn(pooled);
+        QuizVariant variant = QuizVariant.generate(pooled, 1L);
+        int outside = IntStream.range(0, 4).filter(question -> !variant.contains(question))
+                .findFirst().orElseThrow();
+        int inside = variant.getQuestion(0);
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.enqueue(2L, 1L,
+                Map.of(pooled.getQuestionId(outside), List.of(pooled.getOptionId(outside, 0)))));
+        assertEquals(0, pipeline.getQueueSize());
+        pipeline.enqueue(2L, 1L, Map.of(pooled.getQuestionId(inside), List.of(pooled.getOptionId(inside, 0))));
+        assertEquals(1, pipeline.getQueueSize());
+    }
+
+    @Test
+    void enqueue_ShouldRejectSecondSubmissionWhileFirstIsQueued() {
+        pipeline.enqueue(1L, 1L, Map.of(10L, List.of(100L)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> pipeline.enqueue(1L, 1L, Map.of(10L, List.of(101L))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shutdown_ShouldDrainQueueInOneBatch() throws InterruptedException {
+        SubmissionTicketDTO correct = pipeline.enqueue(1L, 1L, Map.of(10L, List.of(100L)));
+        SubmissionTicketDTO wrong = pipeline.enqueue(1L, 2L, Map.of(10L, List.of(101L)));
+        assertEquals(SubmissionTicketStatus.PENDING, pipeline.getTicket(correct.getTicketId()).getStatus());
+
+        pipeline.shutdown();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(0, pipeline.getQueueSize());
+        assertEquals(SubmissionTicketStatus.COMPLETED, pipeline.getTicket(correct.getTicketId()).getStatus());
+        assertEquals(5, pipeline.getTicket(correct.getTicketId()).getScore());
+        assertEquals(0, pipeline.getTicket(wrong.getTicketId()).getScore());
+        assertThrows(TooManyRequestsException.class,
+                () -> pipeline.enqueue(1L, 3L, Map.of(10L, List.of(100L))));
+    }
+
+    @Test
+    void shutdown_ShouldFailTicketsOfQuizDeletedBeforeInsert() throws InterruptedException {
+        SubmissionTicketDTO ticket = pipeline.enqueue(1L, 1L, Map.of(10L, List.of(100L)));
+        when(quizRepository.lockIdsForSubmission(anyCollection())).thenReturn(List.of());
+
+        pipeline.shutdown();
+
+        verifyNoInteractions(jdbcTemplate);
+        SubmissionTicketDTO failed = pipeline.getTicket(ticket.getTicketId());
+        assertEquals(SubmissionTicketStatus.FAILED, failed.getStatus());
+        assertEquals("Quiz not found with id: 1", failed.getError());
+    }
+
+    @Test
+    void shutdown_ShouldWaitForInFlightEnqueueAndDrainIt() throws Exception {
+        // Given: приём застрял на чтении студента, когда началась остановка
+        CountDownLatch admitting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findNameById(7L)).thenAnswer(invocation -> {
+            admitting.countDown();
+            release.await();
+            return Optional.of("Slow Student");
+        });
+        AtomicReference<SubmissionTicketDTO> ticket = new AtomicReference<>();
+        Thread enqueuer = new Thread(() -> ticket.set(pipeline.enqueue(1L, 7L, Map.of(10L, List.of(100L)))));
+        enqueuer.start();
+        admitting.await();
+
+        // When
+        Thread stopper = new Thread(() -> {
+            try {
+                pipeline.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        stopper.join(200);
+
+        // Then
+        assertTrue(stopper.isAlive());
+        release.countDown();
+        enqueuer.join(5000);
+        stopper.join(5000);
+        assertEquals(SubmissionTicketStatus.COMPLETED, pipeline.getTicket(ticket.get().getTicketId()).getStatus());
+        assertEquals(0, pipeline.getQueueSize());
+    }
+}
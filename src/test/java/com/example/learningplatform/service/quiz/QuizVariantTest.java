@@ -0,0 +1,97 @@
+package com.example.learningplatform.service.quiz;
+
+import com.example.learningplatform.repository.projection.AnswerKeyRow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizVariantTest {
+
+    // Банк из 20 вопросов по 4 варианта, верный - первый; студент получает 5 вопросов
+    private final QuizAnswerKey key = compile(20, 5);
+
+    @Test
+    void generate_ShouldBeDeterministicPerStudentAndQuiz() {
+        QuizVariant first = QuizVariant.generate(key, 42L);
+        QuizVariant second = QuizVariant.generate(key, 42L);
+
+        assertEquals(5, first.getQuestionCount());
+        for (int position = 0; position < first.getQuestionCount(); position++) {
+            assertEquals(first.getQuestion(position), second.getQuestion(position));
+            for (int option = 0; option < 4; option++) {
+                assertEquals(first.getOption(position, option), second.getOption(position, option));
+            }
+        }
+    }
+
+    @Test
+    void generate_ShouldDrawDistinctQuestionsAndPermuteOptions() {
+        Set<List<Integer>> selections = new HashSet<>();
+        for (long studentId = 1; studentId <= 50; studentId++) {
+            QuizVariant variant = QuizVariant.generate(key, studentId);
+            List<Integer> questions = new ArrayList<>();
+            for (int position = 0; position < variant.getQuestionCount(); position++) {
+                int question = variant.getQuestion(position);
+                assertTrue(variant.contains(question));
+                questions.add(question);
+
+                Set<Integer> options = new HashSet<>();
+                for (int option = 0; option < 4; option++) {
+                    options.add(variant.getOption(position, option));
+                }
+                assertEquals(Set.of(0, 1, 2, 3), options);
+            }
+            assertEquals(5, new HashSet<>(questions).size());
+            selections.add(questions);
+        }
+        // Разным студентам достаются разные наборы
+        assertTrue(selections.size() > 40);
+    }
+
+    @Test
+    void toAnswers_ShouldMapPositionsBackToIds() {
+        QuizVariant variant = QuizVariant.generate(key, 7L);
+        int question = variant.getQuestion(2);
+        int correctPosition = -1;
+        for (int option = 0; option < 4; option++) {
+            if (variant.getOption(2, option) == 0) {
+                correctPosition = option;
+            }
+        }
+
+        Map<Long, List<Long>> answers = variant.toAnswers(key, Map.of(2, List.of(correctPosition)));
+
+        long questionId = key.getQuestionId(question);
+        assertEquals(Map.of(questionId, List.of(key.getOptionId(question, 0))), answers);
+        assertEquals(key.getPoints(question), key.score(answers));
+        assertThrows(IllegalArgumentException.class, () -> variant.toAnswers(key, Map.of(5, List.of(0))));
+        assertThrows(IllegalArgumentException.class, () -> variant.toAnswers(key, Map.of(0, List.of(4))));
+    }
+
+    @Test
+    void generate_ShouldUseWholeBankWhenQuizIsNotPooled() {
+        QuizAnswerKey unpooled = compile(3, null);
+        QuizVariant variant = QuizVariant.generate(unpooled, 1L);
+
+        assertFalse(unpooled.isPooled());
+        assertEquals(3, variant.getQuestionCount());
+        assertTrue(variant.contains(0) && variant.contains(1) && variant.contains(2));
+    }
+
+    private static QuizAnswerKey compile(int questionCount, Integer questionsPerAttempt) {
+        List<AnswerKeyRow> rows = new ArrayList<>();
+        for (int question = 0; question < questionCount; question++) {
+            for (int option = 0; option < 4; option++) {
+                rows.add(new AnswerKeyRow("Pool", 100L + question, question + 1,
+                        1000L + question * 10 + option, option == 0, questionsPerAttempt));
+            }
+        }
+        return QuizAnswerKey.compile(1L, rows);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.learningplatform.service.search;
+
+import com.example.learningplatform.dto.CourseSuggestionDTO;
+import com.example.learningplatform.repository.CourseRepository;
+import com.example.learningplatform.repository.TagRepository;
+import com.example.learningplatform.repository.projection.CourseTitleRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseSuggestionIndexTest {
+
+    private CourseSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CourseRepository courseRepository = mock(CourseRepository.class);
+        TagRepository tagRepository = mock(TagRepository.class);
+        when(courseRepository.findPublishedTitles()).thenReturn(List.of(
+                new CourseTitleRow(1L, "Java Fundamentals"),
+                new CourseTitleRow(2L, "Spring Boot Masterclass")));
+        when(tagRepository.findAllNames()).thenReturn(List.of("Java", "Spring Boot", "Python"));
+
+        index = new CourseSuggestionIndex(courseRepository, tagRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_ShouldReturnCoursesAndTagsByCaseInsensitivePrefix() {
+        List<CourseSuggestionDTO> suggestions = index.suggest("JaV", 10);
+
+        assertEquals(List.of("Java", "Java Fundamentals"),
+                suggestions.stream().map(CourseSuggestionDTO::getText).toList());
+        assertEquals(CourseSuggestionIndex.TAG, suggestions.get(0).getType());
+        assertEquals(1L, suggestions.get(1).getCourseId());
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        assertEquals(1, index.suggest("spring", 1).size());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void indexCourse_ShouldReplaceTitleAndRemoveOnUnpublish() {
+        index.indexCourse(1L, "Kotlin Fundamentals", true);
+
+        assertEquals(List.of("Java"), index.suggest("java", 10).stream().map(CourseSuggestionDTO::getText).toList());
+        assertEquals(1L, index.suggest("kot", 10).get(0).getCourseId());
+
+        index.indexCourse(1L, "Kotlin Fundamentals", false);
+
+        assertTrue(index.suggest("kot", 10).isEmpty());
+    }
+
+    @Test
+    void indexTags_ShouldAddNewTags() {
+        index.indexTags(List.of("Kotlin"));
+
+        assertEquals("Kotlin", index.suggest("k", 10).get(0).getText());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.learningplatform.service.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final List<String> fired = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    // 8 корзин по 10 мс: оборот колеса - 80 мс
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", Duration.ofMillis(10), 8,
+            expired -> {
+                batchSizes.add(expired.size());
+                fired.addAll(expired);
+            });
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        wheel.stop();
+    }
+
+    @Test
+    void schedule_ShouldFireNotBeforeDeadlineIncludingSeveralRounds() throws InterruptedException {
+        wheel.start();
+        Instant now = Instant.now();
+        wheel.schedule("short", now.plusMillis(30));
+        wheel.schedule("long", now.plusMillis(250));
+
+        awaitFired(1);
+        assertEquals(List.of("short"), fired);
+        assertTrue(Instant.now().isAfter(now.plusMillis(30)));
+
+        awaitFired(2);
+        assertEquals(List.of("short", "long"), fired);
+        assertFalse(Instant.now().isBefore(now.plusMillis(250)));
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlinesOnNextTickInOneBatch() throws InterruptedException {
+        Instant past = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule("past-" + i, past);
+        }
+        wheel.start();
+
+        awaitFired(1000);
+        assertEquals(List.of(1000), batchSizes);
+    }
+
+    @Test
+    void cancel_ShouldSkipCancelledEntries() throws InterruptedException {
+        wheel.start();
+        Instant deadline = Instant.now().plusMillis(50);
+        HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", deadline);
+        wheel.schedule("kept", deadline);
+        cancelled.cancel();
+
+        awaitFired(1);
+        Thread.sleep(100);
+        assertEquals(List.of("kept"), fired);
+        assertTrue(cancelled.isCancelled());
+    }
+
+    @Test
+    void constructor_ShouldRejectWheelSizeThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new HashedTimingWheel<String>("bad", Duration.ofMillis(10), 10, expired -> { }));
+    }
+
+    private void awaitFired(int count) throws InterruptedException {
+        for (int i = 0; i < 200 && fired.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, fired.size(), "Entries fired: " + fired);
+    }
+}